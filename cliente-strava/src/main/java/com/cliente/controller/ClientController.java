@@ -2,7 +2,6 @@ package com.cliente.controller;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -36,6 +35,9 @@ import jakarta.validation.Valid;
 @RequestMapping("/strava")
 public class ClientController {
 
+    // Participantes que se muestran en la clasificación de un reto
+    private static final int LEADERBOARD_SIZE = 10;
+
     private final ServiceProxy serviceProxy;
     
         public ClientController(ServiceProxy serviceProxy) {
@@ -446,31 +448,6 @@ public class ClientController {
             default -> model.addAttribute("challenge", null);
         }
 
-        // Obtener los participantes
-        var participantsResponse = serviceProxy.getChallengeParticipants(id);
-        if (participantsResponse instanceof SuccessResponseDTO successResponseDTO) {
-            @SuppressWarnings("unchecked")
-            var participants = (List<Map<String, Object>>) successResponseDTO.getValue("participants");
-            
-            // Ordenar los participantes por progreso en orden descendente
-            participants.sort(Comparator.comparingDouble(p -> {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> participant = (Map<String, Object>) p;
-                Object progress = participant.get("progress");
-                
-                // Asegurar que el progreso sea tratado como un Double
-                if (progress instanceof Number number) {
-                    return number.doubleValue();
-                } else {
-                    return 0.0; // Valor por defecto si no hay progreso válido
-                }
-            }).reversed());
-            
-            model.addAttribute("participants", participants);
-        } else {
-            model.addAttribute("participants", null);
-        }
-          
         // Obtener el ID de usuario de la sesión y añadirlo al modelo
         String userId = (String) session.getAttribute("userId");
         model.addAttribute("logged", userId != null);
@@ -491,6 +468,29 @@ public class ClientController {
             }
         }
 
+        // Obtener la clasificación: los primeros participantes y, si el usuario participa, los que le rodean.
+        // El servidor la mantiene ordenada, así que no hace falta pedir a todos los participantes ni ordenarlos aquí
+        UUID aroundUserId = Boolean.TRUE.equals(model.getAttribute("isChallengeAccepted")) ? UUID.fromString(userId) : null;
+        var leaderboardResponse = serviceProxy.getChallengeLeaderboard(id, LEADERBOARD_SIZE, aroundUserId);
+        if (leaderboardResponse instanceof SuccessResponseDTO successResponseDTO) {
+            @SuppressWarnings("unchecked")
+            var participants = (List<Map<String, Object>>) successResponseDTO.getValue("leaderboard");
+            model.addAttribute("participants", participants);
+            model.addAttribute("participantsCount", successResponseDTO.getValue("participants"));
+
+            // De la ventana del usuario solo se muestran los que no aparecen ya entre los primeros
+            @SuppressWarnings("unchecked")
+            var around = (List<Map<String, Object>>) successResponseDTO.getValue("around");
+            if (around != null) {
+                int lastRank = participants.size();
+                model.addAttribute("aroundParticipants", around.stream()
+                        .filter(participant -> ((Number) participant.get("rank")).intValue() > lastRank)
+                        .toList());
+            }
+        } else {
+            model.addAttribute("participants", null);
+        }
+
         // Si unexpectedError es true, añadir al modelo para mostrar en la vista
         if (unexpectedError != null && unexpectedError) {
             model.addAttribute("unexpectedError", true);
@@ -256,8 +256,12 @@ public class ServiceProxy {
         return handleRequest(request);
     }
 
-    public Object getChallengeParticipants(UUID challengeId) {
-        HttpGet request = new HttpGet(serverBaseUrl + "/challenges/" + challengeId + "/participants");
+    public Object getChallengeLeaderboard(UUID challengeId, int top, UUID aroundUserId) {
+        String url = serverBaseUrl + "/challenges/" + challengeId + "/leaderboard?top=" + top;
+        if (aroundUserId != null) {
+            url += "&around=" + aroundUserId;
+        }
+        HttpGet request = new HttpGet(url);
         return handleRequest(request);
     }
 
@@ -6,14 +6,26 @@ import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.HashMap;
+import java.net.SocketTimeoutException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class MetaAuthServer {
-    private static final int PORT = 8082;
-    private static final Map<String, String> users = new HashMap<>();
+    static final int PORT = 8082;
+    static final int IDLE_TIMEOUT_MS = 60_000;  // Cierra las conexiones persistentes inactivas
+
+    // Configurables con -Dmeta.backlog=..., -Dmeta.maxConnections=... y -Dmeta.mode=blocking|nio
+    static final int BACKLOG = Integer.getInteger("meta.backlog", 1024);
+    static final int MAX_CONNECTIONS = Integer.getInteger("meta.maxConnections", 10_000);
+    private static final String MODE = System.getProperty("meta.mode", "blocking");
+
+    // Accedido concurrentemente desde todas las conexiones
+    private static final Map<String, String> users = new ConcurrentHashMap<>();
     private static final Logger logger = Logger.getLogger(MetaAuthServer.class.getName());
 
     // usuarios prueba
@@ -24,12 +36,35 @@ public class MetaAuthServer {
     }
 
     public static void main(String[] args) throws IOException {
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
+        if ("nio".equalsIgnoreCase(MODE)) {
+            NioMetaAuthServer.run();
+            return;
+        }
+
+        // Limita las conexiones atendidas a la vez; el resto espera en la cola de aceptación del sistema
+        Semaphore connectionPermits = new Semaphore(MAX_CONNECTIONS);
+
+        try (ServerSocket serverSocket = new ServerSocket(PORT, BACKLOG);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
             System.out.println("MetaAuthServer is running...");
+            logger.log(Level.INFO, "Backlog: {0}, max connections: {1}", new Object[]{String.valueOf(BACKLOG), String.valueOf(MAX_CONNECTIONS)});
 
             while (true) {
-                Socket clientSocket = serverSocket.accept();
-                new Thread(() -> handleClient(clientSocket)).start();
+                connectionPermits.acquireUninterruptibly();
+                Socket clientSocket;
+                try {
+                    clientSocket = serverSocket.accept();
+                } catch (IOException e) {
+                    connectionPermits.release();
+                    throw e;
+                }
+                executor.execute(() -> {
+                    try {
+                        handleClient(clientSocket);
+                    } finally {
+                        connectionPermits.release();
+                    }
+                });
             }
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error starting the server on port " + PORT, e);
@@ -37,59 +72,88 @@ public class MetaAuthServer {
     }
 
     private static void handleClient(Socket clientSocket) {
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-             PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)) {
+        try (Socket socket = clientSocket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
 
-            String request = in.readLine();
-            logger.log(Level.INFO, "Received request: {0}", request);  // Log del comando recibido
+            // Las conexiones son persistentes: se atienden comandos (uno por línea) hasta que el cliente cierra
+            socket.setSoTimeout(IDLE_TIMEOUT_MS);
+            String request;
+            while ((request = in.readLine()) != null) {
+                out.println(processRequest(request));
+            }
+        } catch (SocketTimeoutException e) {
+            logger.log(Level.FINE, "Closing idle connection");
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error processing request", e);
+        }
+    }
 
-            String[] parts = request.split(" ");
-            String command = parts[0];
+    private static String processRequest(String request) {
+        logger.log(Level.INFO, "Received request: {0}", request);  // Log del comando recibido
 
-            switch (command) {
-                case "REGISTER" -> {
-                    if (parts.length < 3) {
-                        out.println("REGISTER_FAIL");
-                        logger.log(Level.WARNING, "Invalid REGISTER request: {0}", request);
-                        break;
-                    }
-                    String email = parts[1];
-                    String password = parts[2];
-                    if (users.containsKey(email)) {
-                        out.println("REGISTER_FAIL");
-                        logger.log(Level.WARNING, "Registration failed. Email already exists: {0}", email);
-                    } else {
-                        users.put(email, password);
-                        out.println("REGISTER_SUCCESS");
-                        logger.log(Level.INFO, "User registered successfully: {0}", email);
-                    }
-                }
+        String[] parts = request.split(" ");
+        String command = parts[0];
 
-                case "VALIDATE_EMAIL" -> {
-                    String email = parts[1];
-                    out.println(users.containsKey(email) ? "EMAIL_VALID" : "EMAIL_INVALID");
-                    logger.log(Level.INFO, "Email validation result for {0}: {1}", new Object[]{email, users.containsKey(email) ? "valid" : "invalid"});
+        switch (command) {
+            case "REGISTER" -> {
+                if (parts.length < 3) {
+                    logger.log(Level.WARNING, "Invalid REGISTER request: {0}", request);
+                    return "REGISTER_FAIL";
                 }
+                String email = parts[1];
+                String password = parts[2];
+                if (!register(email, password)) {
+                    logger.log(Level.WARNING, "Registration failed. Email already exists: {0}", email);
+                    return "REGISTER_FAIL";
+                }
+                logger.log(Level.INFO, "User registered successfully: {0}", email);
+                return "REGISTER_SUCCESS";
+            }
 
-                case "VALIDATE_PASSWORD" -> {
-                    String email = parts[1];
-                    String password = parts[2];
-                    if (users.containsKey(email) && users.get(email).equals(password)) {
-                        out.println("PASSWORD_VALID");
-                        logger.log(Level.INFO, "Password validation successful for {0}", email);
-                    } else {
-                        out.println("PASSWORD_INVALID");
-                        logger.log(Level.WARNING, "Password validation failed for {0}", email);
-                    }
+            case "VALIDATE_EMAIL" -> {
+                if (parts.length < 2) {
+                    logger.log(Level.WARNING, "Invalid VALIDATE_EMAIL request: {0}", request);
+                    return "EMAIL_INVALID";
                 }
+                String email = parts[1];
+                boolean registered = isRegistered(email);
+                logger.log(Level.INFO, "Email validation result for {0}: {1}", new Object[]{email, registered ? "valid" : "invalid"});
+                return registered ? "EMAIL_VALID" : "EMAIL_INVALID";
+            }
 
-                default -> {
-                    out.println("UNKNOWN_COMMAND");
-                    logger.log(Level.WARNING, "Unknown command received: {0}", command);
+            case "VALIDATE_PASSWORD" -> {
+                if (parts.length < 3) {
+                    logger.log(Level.WARNING, "Invalid VALIDATE_PASSWORD request: {0}", request);
+                    return "PASSWORD_INVALID";
                 }
+                String email = parts[1];
+                String password = parts[2];
+                if (isPasswordValid(email, password)) {
+                    logger.log(Level.INFO, "Password validation successful for {0}", email);
+                    return "PASSWORD_VALID";
+                }
+                logger.log(Level.WARNING, "Password validation failed for {0}", email);
+                return "PASSWORD_INVALID";
+            }
+
+            default -> {
+                logger.log(Level.WARNING, "Unknown command received: {0}", command);
+                return "UNKNOWN_COMMAND";
             }
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, "Error processing request", e);
         }
     }
+
+    // Operaciones sobre el almacén de usuarios, compartidas por los modos bloqueante y NIO
+    static boolean register(String email, String password) {
+        return users.putIfAbsent(email, password) == null;
+    }
+
+    static boolean isRegistered(String email) {
+        return users.containsKey(email);
+    }
+
+    static boolean isPasswordValid(String email, String password) {
+        return password.equals(users.get(email));
+    }
 }
@@ -0,0 +1,290 @@
+package es.deusto.MetaAuthServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Implementación no bloqueante del protocolo de MetaAuthServer sobre un único Selector.
+// Los comandos se decodifican directamente de los ByteBuffer de cada conexión, que se reutilizan.
+class NioMetaAuthServer {
+
+    private static final Logger logger = Logger.getLogger(NioMetaAuthServer.class.getName());
+
+    private static final int BUFFER_SIZE = 1024;  // Longitud máxima de una línea de comando
+    private static final long SELECT_TIMEOUT_MS = 1000;
+    // Cada cuánto se buscan conexiones inactivas. El barrido recorre todas las conexiones, así que no se hace en
+    // cada vuelta del selector: una conexión se cierra como mucho un intervalo después de superar su timeout
+    private static final long IDLE_CHECK_INTERVAL_MS = Math.min(1000, MetaAuthServer.IDLE_TIMEOUT_MS);
+
+    private static final byte[] REGISTER = ascii("REGISTER");
+    private static final byte[] VALIDATE_EMAIL = ascii("VALIDATE_EMAIL");
+    private static final byte[] VALIDATE_PASSWORD = ascii("VALIDATE_PASSWORD");
+
+    private static final byte[] REGISTER_SUCCESS = ascii("REGISTER_SUCCESS\n");
+    private static final byte[] REGISTER_FAIL = ascii("REGISTER_FAIL\n");
+    private static final byte[] EMAIL_VALID = ascii("EMAIL_VALID\n");
+    private static final byte[] EMAIL_INVALID = ascii("EMAIL_INVALID\n");
+    private static final byte[] PASSWORD_VALID = ascii("PASSWORD_VALID\n");
+    private static final byte[] PASSWORD_INVALID = ascii("PASSWORD_INVALID\n");
+    private static final byte[] UNKNOWN_COMMAND = ascii("UNKNOWN_COMMAND\n");
+    private static final int MAX_RESPONSE_LENGTH = PASSWORD_INVALID.length;
+
+    private static final int MAX_TOKENS = 3;
+
+    private int openConnections = 0;
+    private long nextIdleCheck = 0;
+
+    static void run() throws IOException {
+        new NioMetaAuthServer().serve();
+    }
+
+    private void serve() throws IOException {
+        try (Selector selector = Selector.open();
+             ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(MetaAuthServer.PORT), MetaAuthServer.BACKLOG);
+            serverChannel.configureBlocking(false);
+            SelectionKey acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+            System.out.println("MetaAuthServer (NIO) is running...");
+            logger.log(Level.INFO, "Backlog: {0}, max connections: {1}",
+                    new Object[]{String.valueOf(MetaAuthServer.BACKLOG), String.valueOf(MetaAuthServer.MAX_CONNECTIONS)});
+
+            while (true) {
+                selector.select(SELECT_TIMEOUT_MS);
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept(serverChannel, selector, acceptKey);
+                        } else {
+                            if (key.isWritable()) {
+                                write(key);
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                read(key);
+                            }
+                        }
+                    } catch (IOException e) {
+                        logger.log(Level.FINE, "Closing connection after I/O error", e);
+                        close(key, acceptKey);
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                if (now >= nextIdleCheck) {
+                    closeIdleConnections(selector, acceptKey, now);
+                    nextIdleCheck = now + IDLE_CHECK_INTERVAL_MS;
+                }
+            }
+        }
+    }
+
+    private void accept(ServerSocketChannel serverChannel, Selector selector, SelectionKey acceptKey) throws IOException {
+        SocketChannel channel;
+        while (openConnections < MetaAuthServer.MAX_CONNECTIONS && (channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection());
+            openConnections++;
+        }
+
+        // Al alcanzar el límite se deja de aceptar; los clientes esperan en la cola del sistema
+        if (openConnections >= MetaAuthServer.MAX_CONNECTIONS) {
+            acceptKey.interestOps(0);
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+
+        int read = channel.read(connection.in);
+        if (read < 0) {
+            throw new IOException("Connection closed by client");
+        }
+        connection.lastActivity = System.currentTimeMillis();
+
+        processLines(connection);
+
+        if (!connection.in.hasRemaining() && !containsNewline(connection.in)) {
+            // Línea demasiado larga para el buffer: se descarta la conexión
+            throw new IOException("Request line too long");
+        }
+
+        flush(key, connection);
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        flush(key, connection);
+        // Puede haber comandos pendientes que no se procesaron por falta de espacio de salida
+        processLines(connection);
+        flush(key, connection);
+    }
+
+    // Procesa todas las líneas completas del buffer de entrada mientras quepan las respuestas
+    private void processLines(Connection connection) {
+        ByteBuffer in = connection.in;
+        byte[] data = in.array();
+        int end = in.position();
+        int lineStart = 0;
+
+        for (int i = 0; i < end; i++) {
+            if (data[i] != '\n') {
+                continue;
+            }
+            if (connection.out.remaining() < MAX_RESPONSE_LENGTH) {
+                break;
+            }
+            int lineEnd = (i > lineStart && data[i - 1] == '\r') ? i - 1 : i;
+            connection.out.put(handle(data, lineStart, lineEnd, connection.tokenBounds));
+            lineStart = i + 1;
+        }
+
+        // Compactar: mover los bytes de la línea incompleta al principio del buffer
+        if (lineStart > 0) {
+            System.arraycopy(data, lineStart, data, 0, end - lineStart);
+            in.position(end - lineStart);
+        }
+    }
+
+    private static boolean containsNewline(ByteBuffer buffer) {
+        byte[] data = buffer.array();
+        for (int i = 0; i < buffer.position(); i++) {
+            if (data[i] == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void flush(SelectionKey key, Connection connection) throws IOException {
+        ByteBuffer out = connection.out;
+        out.flip();
+        ((SocketChannel) key.channel()).write(out);
+        out.compact();
+
+        // Si queda salida pendiente dejamos de leer hasta que el socket admita escritura
+        int ops = out.position() > 0 ? SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (key.interestOps() != ops) {
+            key.interestOps(ops);
+        }
+    }
+
+    // Decodifica un comando delimitado por espacios sin crear objetos salvo el email y la contraseña
+    private byte[] handle(byte[] data, int start, int end, int[] bounds) {
+        int tokens = tokenize(data, start, end, bounds);
+        if (tokens == 0) {
+            return UNKNOWN_COMMAND;
+        }
+
+        int commandStart = bounds[0];
+        int commandEnd = bounds[1];
+
+        if (matches(REGISTER, data, commandStart, commandEnd)) {
+            if (tokens < 3) {
+                return REGISTER_FAIL;
+            }
+            boolean registered = MetaAuthServer.register(token(data, bounds, 1), token(data, bounds, 2));
+            return registered ? REGISTER_SUCCESS : REGISTER_FAIL;
+        }
+
+        if (matches(VALIDATE_EMAIL, data, commandStart, commandEnd)) {
+            if (tokens < 2) {
+                return EMAIL_INVALID;
+            }
+            return MetaAuthServer.isRegistered(token(data, bounds, 1)) ? EMAIL_VALID : EMAIL_INVALID;
+        }
+
+        if (matches(VALIDATE_PASSWORD, data, commandStart, commandEnd)) {
+            if (tokens < 3) {
+                return PASSWORD_INVALID;
+            }
+            return MetaAuthServer.isPasswordValid(token(data, bounds, 1), token(data, bounds, 2)) ? PASSWORD_VALID : PASSWORD_INVALID;
+        }
+
+        return UNKNOWN_COMMAND;
+    }
+
+    // Guarda en bounds los límites [inicio, fin) de hasta MAX_TOKENS tokens separados por un espacio
+    private static int tokenize(byte[] data, int start, int end, int[] bounds) {
+        if (start >= end) {
+            return 0;
+        }
+
+        int tokens = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end && tokens < MAX_TOKENS; i++) {
+            if (i == end || data[i] == ' ') {
+                bounds[tokens * 2] = tokenStart;
+                bounds[tokens * 2 + 1] = i;
+                tokens++;
+                tokenStart = i + 1;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean matches(byte[] expected, byte[] data, int start, int end) {
+        return Arrays.equals(expected, 0, expected.length, data, start, end);
+    }
+
+    private static String token(byte[] data, int[] bounds, int index) {
+        int start = bounds[index * 2];
+        return new String(data, start, bounds[index * 2 + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    private void closeIdleConnections(Selector selector, SelectionKey acceptKey, long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection
+                    && now - connection.lastActivity > MetaAuthServer.IDLE_TIMEOUT_MS) {
+                close(key, acceptKey);
+            }
+        }
+    }
+
+    private void close(SelectionKey key, SelectionKey acceptKey) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Error closing connection", e);
+        }
+
+        if (key.attachment() instanceof Connection) {
+            openConnections--;
+            // Volver a aceptar conexiones si se había alcanzado el límite
+            if (acceptKey.isValid() && acceptKey.interestOps() == 0) {
+                acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+            }
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Estado por conexión: buffers reutilizados durante toda la vida de la conexión
+    private static class Connection {
+        final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        final int[] tokenBounds = new int[MAX_TOKENS * 2];
+        long lastActivity = System.currentTimeMillis();
+    }
+}
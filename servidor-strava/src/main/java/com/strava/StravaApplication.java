@@ -2,8 +2,10 @@ package com.strava;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling  // Barrido periódico de tokens caducados (TokenSweeper)
 public class StravaApplication {
     public static void main(String[] args) {
         SpringApplication.run(StravaApplication.class, args);
@@ -0,0 +1,126 @@
+package com.strava.cache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.strava.entity.Challenge;
+import com.strava.entity.enumeration.ObjectiveType;
+import com.strava.entity.enumeration.SportType;
+
+// Clasificación en memoria de un reto: valor acumulado de cada participante ordenado de mayor a menor.
+// Las consultas de los N primeros y de la posición de un usuario cuestan O(log n) más el tamaño del resultado
+public class ChallengeLeaderboard {
+
+    private final SportType sport;
+    private final ObjectiveType objectiveType;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final double objectiveValue;
+    private final long loadedAt = System.currentTimeMillis();
+
+    // Marcada cuando la carga pudo perder o duplicar algún cambio confirmado mientras se leía la base de datos
+    private volatile boolean stale = false;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private final Map<UUID, Participant> participants = new HashMap<>();
+    private final RankedIndex index = new RankedIndex();
+
+    public ChallengeLeaderboard(Challenge challenge) {
+        this.sport = challenge.getSport();
+        this.objectiveType = challenge.getObjectiveType();
+        this.startDate = challenge.getStartDate();
+        this.endDate = challenge.getEndDate();
+        this.objectiveValue = challenge.getObjectiveValue();
+    }
+
+    // Indica si una sesión de ese deporte y fecha cuenta para el reto
+    public boolean covers(SportType sport, LocalDate date) {
+        return this.sport == sport && !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+
+    public ObjectiveType getObjectiveType() {
+        return objectiveType;
+    }
+
+    public double getObjectiveValue() {
+        return objectiveValue;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public boolean needsRefresh(long refreshMillis) {
+        return stale || System.currentTimeMillis() - loadedAt >= refreshMillis;
+    }
+
+    public void markStale() {
+        stale = true;
+    }
+
+    // Solo un hilo recarga la clasificación; los demás siguen usando esta mientras tanto
+    public boolean tryStartRefresh() {
+        return refreshing.compareAndSet(false, true);
+    }
+
+    public void endRefresh() {
+        refreshing.set(false);
+    }
+
+    // Añadir un participante o reemplazar su valor acumulado
+    public synchronized void put(UUID userId, String userName, double value) {
+        Participant previous = participants.put(userId, new Participant(userName, value));
+        if (previous != null) {
+            index.remove(userId, previous.value());
+        }
+        index.insert(userId, value);
+    }
+
+    // Sumar (o restar) una cantidad al valor acumulado de un participante; se ignora si no participa
+    public synchronized void add(UUID userId, double delta) {
+        Participant previous = participants.get(userId);
+        if (previous != null) {
+            put(userId, previous.userName(), previous.value() + delta);
+        }
+    }
+
+    public synchronized int size() {
+        return participants.size();
+    }
+
+    // Los primeros participantes de la clasificación
+    public synchronized List<RankedParticipant> top(int limit) {
+        return range(0, Math.min(limit, participants.size()));
+    }
+
+    // Una ventana de la clasificación centrada en el usuario, o una lista vacía si no participa
+    public synchronized List<RankedParticipant> around(UUID userId, int limit) {
+        Participant participant = participants.get(userId);
+        if (participant == null) {
+            return List.of();
+        }
+        int rank = index.rankOf(userId, participant.value());
+        int end = Math.min(participants.size(), Math.max(0, rank - limit / 2) + limit);
+        int start = Math.max(0, end - limit);
+        return range(start, end);
+    }
+
+    private List<RankedParticipant> range(int start, int end) {
+        List<RankedParticipant> result = new ArrayList<>(end - start);
+        for (int position = start; position < end; position++) {
+            UUID userId = index.userAt(position);
+            Participant participant = participants.get(userId);
+            result.add(new RankedParticipant(position + 1, userId, participant.userName(), participant.value()));
+        }
+        return result;
+    }
+
+    private record Participant(String userName, double value) {}
+
+    public record RankedParticipant(int rank, UUID userId, String userName, double value) {}
+}
@@ -0,0 +1,179 @@
+package com.strava.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.strava.entity.enumeration.AuthProvider;
+
+// Caché de verificaciones de credenciales correctas. Nunca guarda contraseñas: solo un HMAC con una
+// clave aleatoria generada al arrancar, por lo que los datos en memoria no sirven fuera de este proceso.
+@Component
+public class CredentialCache {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final SecretKeySpec key;
+
+    // Mac no es thread-safe: una instancia por hilo
+    private final ThreadLocal<Mac> mac;
+
+    // Mapa LRU de HMAC(proveedor, email) -> HMAC(proveedor, email, contraseña) verificado
+    private final LinkedHashMap<String, VerifiedCredential> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CredentialCache(@Value("${strava.credential-cache.enabled:false}") boolean enabled,
+                           @Value("${strava.credential-cache.max-size:10000}") int maxSize,
+                           @Value("${strava.credential-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+
+        byte[] salt = new byte[32];
+        new SecureRandom().nextBytes(salt);
+        this.key = new SecretKeySpec(salt, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedCredential> eldest) {
+                if (size() > CredentialCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Indica si estas credenciales se verificaron correctamente con el proveedor hace menos del TTL
+    public boolean isVerified(AuthProvider provider, String email, String password) {
+        if (!enabled) {
+            return false;
+        }
+
+        String accountKey = accountKey(provider, email);
+        byte[] credentialHash = credentialHash(provider, email, password);
+
+        synchronized (entries) {
+            VerifiedCredential verified = entries.get(accountKey);
+            if (verified == null) {
+                misses.increment();
+                return false;
+            }
+            if (verified.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(accountKey);
+                evictions.increment();
+                misses.increment();
+                return false;
+            }
+            if (!MessageDigest.isEqual(verified.credentialHash(), credentialHash)) {
+                misses.increment();
+                return false;
+            }
+            hits.increment();
+            return true;
+        }
+    }
+
+    public void recordSuccess(AuthProvider provider, String email, String password) {
+        if (!enabled) {
+            return;
+        }
+
+        String accountKey = accountKey(provider, email);
+        VerifiedCredential verified = new VerifiedCredential(
+                credentialHash(provider, email, password), System.currentTimeMillis() + ttlMillis);
+
+        synchronized (entries) {
+            entries.put(accountKey, verified);
+        }
+    }
+
+    // Ante un fallo de verificación se descarta cualquier éxito previo de esa cuenta
+    public void recordFailure(AuthProvider provider, String email) {
+        if (!enabled) {
+            return;
+        }
+
+        String accountKey = accountKey(provider, email);
+        synchronized (entries) {
+            if (entries.remove(accountKey) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("enabled", enabled);
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    private String accountKey(AuthProvider provider, String email) {
+        return Base64.getEncoder().encodeToString(hmac(provider.name(), email));
+    }
+
+    private byte[] credentialHash(AuthProvider provider, String email, String password) {
+        return hmac(provider.name(), email, password);
+    }
+
+    private byte[] hmac(String... parts) {
+        Mac instance = mac.get();
+        for (String part : parts) {
+            instance.update(part.getBytes(StandardCharsets.UTF_8));
+            instance.update((byte) 0);  // Separador para que ("ab", "c") y ("a", "bc") no coincidan
+        }
+        return instance.doFinal();
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + ALGORITHM, e);
+        }
+    }
+
+    private record VerifiedCredential(byte[] credentialHash, long expiresAt) {}
+}
@@ -0,0 +1,127 @@
+package com.strava.cache;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Árbol de estadísticos de orden (treap con tamaño de subárbol) de pares (valor, usuario) ordenados de mayor
+// a menor valor; a igual valor, por id de usuario. Inserción, borrado, posición y acceso por posición en
+// O(log n) esperado. No es thread-safe: lo protege ChallengeLeaderboard
+class RankedIndex {
+
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(UUID userId, double value) {
+        Node[] parts = split(root, value, userId, false);
+        root = merge(merge(parts[0], new Node(userId, value)), parts[1]);
+    }
+
+    void remove(UUID userId, double value) {
+        Node[] lower = split(root, value, userId, false);    // [< clave, >= clave]
+        Node[] upper = split(lower[1], value, userId, true); // [== clave, > clave]
+        root = merge(lower[0], upper[1]);
+    }
+
+    // Número de elementos por delante de la clave (posición empezando en 0)
+    int rankOf(UUID userId, double value) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int comparison = compare(value, userId, node);
+            if (comparison < 0) {
+                node = node.left;
+            } else if (comparison > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return rank;
+    }
+
+    // Elemento en la posición indicada (empezando en 0)
+    UUID userAt(int position) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position > leftSize) {
+                position -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.userId;
+            }
+        }
+        throw new IndexOutOfBoundsException(position);
+    }
+
+    // Divide el árbol en [< clave, >= clave], o en [<= clave, > clave] si inclusive es true
+    private static Node[] split(Node node, double value, UUID userId, boolean inclusive) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        int comparison = compare(value, userId, node);
+        boolean goesLeft = inclusive ? comparison >= 0 : comparison > 0;
+        if (goesLeft) {
+            Node[] parts = split(node.right, value, userId, inclusive);
+            node.right = parts[0];
+            node.update();
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, value, userId, inclusive);
+        node.left = parts[1];
+        node.update();
+        return new Node[] {parts[0], node};
+    }
+
+    // Une dos árboles en los que todos los elementos de left van antes que los de right
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    // Negativo si la clave va antes que el nodo: mayor valor primero y, a igual valor, menor id
+    private static int compare(double value, UUID userId, Node node) {
+        int comparison = Double.compare(node.value, value);
+        return comparison != 0 ? comparison : userId.compareTo(node.userId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class Node {
+        final UUID userId;
+        final double value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(UUID userId, double value) {
+            this.userId = userId;
+            this.value = value;
+        }
+
+        void update() {
+            size = 1 + RankedIndex.size(left) + RankedIndex.size(right);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.strava.cache;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenCache {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // Mapa LRU (ordenado por acceso) de token -> usuario, acotado a maxSize entradas
+    private final LinkedHashMap<String, CachedToken> entries;
+
+    // Contadores para dimensionar la caché
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TokenCache(@Value("${strava.token-cache.enabled:true}") boolean enabled,
+                      @Value("${strava.token-cache.max-size:10000}") int maxSize,
+                      @Value("${strava.token-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedToken> eldest) {
+                if (size() > TokenCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Devuelve el id del usuario asociado al token si está en caché y no ha caducado
+    public Optional<UUID> get(String token) {
+        if (!enabled || token == null) {
+            return Optional.empty();
+        }
+
+        synchronized (entries) {
+            CachedToken cached = entries.get(token);
+            if (cached == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            if (cached.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(token);
+                evictions.increment();
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(cached.userId());
+        }
+    }
+
+    // La entrada nunca dura más que el propio token (tokenExpiresAt es nulo en los tokens sin caducidad)
+    public void put(String token, UUID userId, Instant tokenExpiresAt) {
+        if (!enabled || token == null || userId == null) {
+            return;
+        }
+
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        if (tokenExpiresAt != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiresAt.toEpochMilli());
+        }
+
+        synchronized (entries) {
+            entries.put(token, new CachedToken(userId, expiresAt));
+        }
+    }
+
+    // Elimina un token de la caché (por ejemplo, al revocarlo en el logout)
+    public void evict(String token) {
+        if (token == null) {
+            return;
+        }
+
+        synchronized (entries) {
+            if (entries.remove(token) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("enabled", enabled);
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    private record CachedToken(UUID userId, long expiresAt) {}
+}
@@ -0,0 +1,35 @@
+package com.strava.cache;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+// Tokens firmados revocados en un logout y que todavía no han caducado. Solo contiene las revocaciones, así que
+// se mantiene pequeño: cada entrada se descarta en cuanto el token caduca y su firma deja de aceptarse de todos modos
+@Component
+public class TokenRevocationList {
+
+    // token -> caducidad del token
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    // Devuelve false si el token ya estaba revocado
+    public boolean revoke(String token, Instant expiresAt) {
+        return revoked.putIfAbsent(token, expiresAt) == null;
+    }
+
+    public boolean isRevoked(String token) {
+        return revoked.containsKey(token);
+    }
+
+    public int removeExpired(Instant now) {
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        return before - revoked.size();
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -0,0 +1,31 @@
+package com.strava.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GatewayConfig {
+
+    // Ejecutor compartido por los gateways de autenticación (hilos virtuales, uno por tarea)
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService authGatewayExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Cliente HTTP único para todas las peticiones a proveedores externos, con su pool de conexiones
+    @Bean
+    public HttpClient authHttpClient(ExecutorService authGatewayExecutor,
+                                     @Value("${strava.http.connect-timeout-ms:2000}") long connectTimeoutMillis) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .executor(authGatewayExecutor)
+                .build();
+    }
+}
@@ -4,9 +4,11 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -15,14 +17,41 @@ import com.strava.entity.User;
 import com.strava.entity.enumeration.SportType;
 
 @Repository
-public interface ChallengeDAO extends JpaRepository<Challenge, UUID> {
+public interface ChallengeDAO extends JpaRepository<Challenge, UUID>, JpaSpecificationExecutor<Challenge> {
 
-    @Query("SELECT c FROM Challenge c JOIN c.users u WHERE (:userId IS NULL OR u.id = :userId) " +
-    "AND (:sport IS NULL OR c.sport = :sport) " +
-    "AND (:endDate IS NULL OR c.startDate <= :endDate) " +
-    "AND (:startDate IS NULL OR c.endDate >= :startDate) " +
-    "ORDER BY c.startDate DESC")
-    Page<Challenge> findFilteredChallenges(UUID userId, LocalDate startDate, LocalDate endDate, SportType sport, Pageable pageable);
+    // Paginación por clave (startDate, id): la página siguiente empieza justo después del cursor, sin OFFSET ni COUNT.
+    // La consulta se construye solo con los filtros presentes para que cada combinación use un plan adecuado
+    default List<Challenge> findFilteredChallenges(UUID userId, LocalDate startDate, LocalDate endDate, SportType sport,
+                                                   LocalDate cursorDate, UUID cursorId, Limit limit) {
+        Specification<Challenge> spec = ChallengeSpecifications.filter(userId, startDate, endDate, sport, cursorDate, cursorId);
+        return findBy(spec, query -> limit.isLimited()
+                ? query.sortBy(ChallengeSpecifications.KEYSET_ORDER).limit(limit.max()).all()
+                : query.sortBy(ChallengeSpecifications.KEYSET_ORDER).all());
+    }
+
+    // Total de retos que cumplen el filtro; solo se ejecuta si el cliente lo pide explícitamente
+    default long countFilteredChallenges(UUID userId, LocalDate startDate, LocalDate endDate, SportType sport) {
+        return count(ChallengeSpecifications.filter(userId, startDate, endDate, sport, null, null));
+    }
 
     List<Challenge> findByCreator(User creator);
+
+    // Identificadores de los participantes de un reto, sin cargar las entidades User
+    @Query("SELECT u.id FROM Challenge c JOIN c.users u WHERE c.id = :challengeId")
+    List<UUID> findParticipantIds(UUID challengeId);
+
+    // Indica si un usuario participa en un reto consultando solo user_challenges, sin cargar la lista de participantes
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM user_challenges WHERE challenge_id = :challengeId AND user_id = :userId)", nativeQuery = true)
+    boolean isParticipant(UUID challengeId, UUID userId);
+
+    // Inscribe a un usuario en un reto con un único INSERT. Devuelve 0 si ya participaba
+    @Modifying
+    @Query(value = "INSERT INTO user_challenges (user_id, challenge_id) " +
+    "SELECT CAST(:userId AS UUID), CAST(:challengeId AS UUID) WHERE NOT EXISTS " +
+    "(SELECT 1 FROM user_challenges WHERE challenge_id = :challengeId AND user_id = :userId)", nativeQuery = true)
+    int addParticipant(UUID challengeId, UUID userId);
+
+    // Número total de participaciones en retos (filas de user_challenges)
+    @Query("SELECT COUNT(u) FROM Challenge c JOIN c.users u")
+    long countParticipations();
 }
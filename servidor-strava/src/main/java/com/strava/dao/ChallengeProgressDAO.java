@@ -0,0 +1,90 @@
+package com.strava.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.strava.entity.ChallengeProgress;
+import com.strava.entity.enumeration.ObjectiveType;
+import com.strava.entity.enumeration.SportType;
+
+@Repository
+public interface ChallengeProgressDAO extends JpaRepository<ChallengeProgress, UUID> {
+
+    // Progreso acumulado de un usuario en todos sus retos
+    @Query("SELECT p.user.id AS userId, p.challenge.id AS challengeId, p.accumulatedValue AS accumulatedValue " +
+    "FROM ChallengeProgress p WHERE p.user.id = :userId")
+    List<ProgressValue> findValuesByUserId(UUID userId);
+
+    // Progreso acumulado de todos los participantes de un reto
+    @Query("SELECT p.user.id AS userId, p.challenge.id AS challengeId, p.accumulatedValue AS accumulatedValue " +
+    "FROM ChallengeProgress p WHERE p.challenge.id = :challengeId")
+    List<ProgressValue> findValuesByChallengeId(UUID challengeId);
+
+    // Progreso acumulado y nombre de todos los participantes de un reto, para construir su clasificación
+    @Query("SELECT p.user.id AS userId, p.user.name AS userName, p.accumulatedValue AS accumulatedValue " +
+    "FROM ChallengeProgress p WHERE p.challenge.id = :challengeId")
+    List<RankingValue> findRankingByChallengeId(UUID challengeId);
+
+    // Crea la fila de progreso de un participante con la suma de sus sesiones dentro del reto en una sola sentencia
+    @Modifying
+    @Query(value = "INSERT INTO challenge_progress (id, user_id, challenge_id, accumulated_value) " +
+    "SELECT CAST(:id AS UUID), CAST(:userId AS UUID), CAST(:challengeId AS UUID), " +
+    "COALESCE(SUM(CASE WHEN :objectiveType = 'DISTANCIA' THEN s.distance ELSE s.duration END), 0.0) " +
+    "FROM sessions s " +
+    "WHERE s.user_id = :userId " +
+    "AND s.sport = :sport " +
+    "AND s.start_date >= :startDate " +
+    "AND s.start_date <= :endDate", nativeQuery = true)
+    int insertFromSessions(UUID id, UUID userId, UUID challengeId, String objectiveType, String sport,
+                           LocalDate startDate, LocalDate endDate);
+
+    // Recalcula toda la tabla con una única sentencia: una fila por participación con la suma de las sesiones
+    // del participante que cuentan para el reto (0 si no tiene ninguna)
+    @Modifying
+    @Query(value = "INSERT INTO challenge_progress (id, user_id, challenge_id, accumulated_value) " +
+    "SELECT RANDOM_UUID(7), uc.user_id, uc.challenge_id, " +
+    "COALESCE(SUM(CASE WHEN c.objective_type = 'DISTANCIA' THEN s.distance ELSE s.duration END), 0.0) " +
+    "FROM user_challenges uc " +
+    "JOIN challenges c ON c.id = uc.challenge_id " +
+    "LEFT JOIN sessions s ON s.user_id = uc.user_id " +
+    "AND s.sport = c.sport " +
+    "AND s.start_date >= c.start_date " +
+    "AND s.start_date <= c.end_date " +
+    "GROUP BY uc.user_id, uc.challenge_id", nativeQuery = true)
+    int insertAllFromSessions();
+
+    @Query("SELECT p.accumulatedValue FROM ChallengeProgress p WHERE p.user.id = :userId AND p.challenge.id = :challengeId")
+    Double findAccumulatedValue(UUID userId, UUID challengeId);
+
+    // Suma (o resta) una cantidad al progreso de los retos de un usuario que cubren la fecha y el deporte indicados
+    @Modifying
+    @Query("UPDATE ChallengeProgress p SET p.accumulatedValue = p.accumulatedValue + :delta " +
+    "WHERE p.user.id = :userId " +
+    "AND p.challenge.id IN (SELECT c.id FROM Challenge c " +
+    "WHERE c.sport = :sport " +
+    "AND c.objectiveType = :objectiveType " +
+    "AND c.startDate <= :date " +
+    "AND c.endDate >= :date)")
+    int addToProgress(UUID userId, SportType sport, ObjectiveType objectiveType, LocalDate date, double delta);
+
+    // Proyección con el valor acumulado de un usuario en un reto
+    interface ProgressValue {
+        UUID getUserId();
+        UUID getChallengeId();
+        Double getAccumulatedValue();
+    }
+
+    // Proyección con el valor acumulado y el nombre de un participante
+    interface RankingValue {
+        UUID getUserId();
+        String getUserName();
+        Double getAccumulatedValue();
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.strava.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.strava.entity.Challenge;
+import com.strava.entity.enumeration.SportType;
+
+import jakarta.persistence.criteria.Predicate;
+
+// Filtros de retos construidos dinámicamente: solo se añaden los predicados de los parámetros presentes
+public final class ChallengeSpecifications {
+
+    // Orden de la paginación por clave (startDate, id)
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "startDate", "id");
+
+    private ChallengeSpecifications() {}
+
+    public static Specification<Challenge> filter(UUID userId, LocalDate startDate, LocalDate endDate, SportType sport,
+                                                  LocalDate cursorDate, UUID cursorId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (userId != null) {
+                // El JOIN con los participantes solo se hace al filtrar por usuario; sin él no hay filas duplicadas
+                predicates.add(cb.equal(root.join("users").get("id"), userId));
+            }
+            if (sport != null) {
+                predicates.add(cb.equal(root.get("sport"), sport));
+            }
+            // Retos que se solapan con el rango de fechas pedido
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("startDate"), endDate));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("endDate"), startDate));
+            }
+            if (cursorDate != null && cursorId != null) {
+                // Empezar justo después del último elemento de la página anterior
+                predicates.add(cb.or(
+                    cb.lessThan(root.get("startDate"), cursorDate),
+                    cb.and(cb.equal(root.get("startDate"), cursorDate), cb.lessThan(root.get("id"), cursorId))
+                ));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
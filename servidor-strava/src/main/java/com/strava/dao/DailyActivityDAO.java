@@ -0,0 +1,53 @@
+package com.strava.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.strava.entity.DailyActivity;
+import com.strava.entity.enumeration.SportType;
+
+@Repository
+public interface DailyActivityDAO extends JpaRepository<DailyActivity, UUID> {
+
+    // Resúmenes diarios de un usuario en un rango de fechas, de un deporte o de todos si sport es nulo
+    @Query("SELECT d FROM DailyActivity d WHERE d.user.id = :userId " +
+    "AND d.activityDate >= :startDate " +
+    "AND d.activityDate <= :endDate " +
+    "AND (:sport IS NULL OR d.sport = :sport) " +
+    "ORDER BY d.activityDate, d.sport")
+    List<DailyActivity> findByUserIdAndDateRange(UUID userId, LocalDate startDate, LocalDate endDate, SportType sport);
+
+    // Suma (o resta) unos totales al resumen del día, creando la fila si todavía no existe, en una sola sentencia
+    @Modifying
+    @Query(value = "MERGE INTO daily_activity d " +
+    "USING (VALUES (CAST(:userId AS UUID), CAST(:date AS DATE), CAST(:sport AS VARCHAR))) s(user_id, activity_date, sport) " +
+    "ON d.user_id = s.user_id AND d.activity_date = s.activity_date AND d.sport = s.sport " +
+    "WHEN MATCHED THEN UPDATE SET total_distance = d.total_distance + :distance, " +
+    "total_duration = d.total_duration + :duration, " +
+    "session_count = d.session_count + :count " +
+    "WHEN NOT MATCHED THEN INSERT (id, user_id, activity_date, sport, total_distance, total_duration, session_count) " +
+    "VALUES (:id, s.user_id, s.activity_date, s.sport, :distance, :duration, :count)", nativeQuery = true)
+    int addToDay(UUID id, UUID userId, LocalDate date, String sport, double distance, double duration, int count);
+
+    // Borra el resumen de un día que se ha quedado sin sesiones
+    @Modifying
+    @Query("DELETE FROM DailyActivity d WHERE d.user.id = :userId " +
+    "AND d.activityDate = :date " +
+    "AND d.sport = :sport " +
+    "AND d.sessionCount <= 0")
+    int deleteIfEmpty(UUID userId, LocalDate date, SportType sport);
+
+    // Recalcula toda la tabla a partir de las sesiones con una única sentencia ejecutada en la base de datos
+    @Modifying
+    @Query(value = "INSERT INTO daily_activity (id, user_id, activity_date, sport, total_distance, total_duration, session_count) " +
+    "SELECT RANDOM_UUID(7), user_id, start_date, sport, SUM(distance), SUM(duration), COUNT(*) " +
+    "FROM sessions GROUP BY user_id, start_date, sport", nativeQuery = true)
+    int insertFromSessions();
+
+}
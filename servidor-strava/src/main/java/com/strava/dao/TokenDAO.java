@@ -1,9 +1,15 @@
 package com.strava.dao;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -13,13 +19,43 @@ import com.strava.entity.UserToken;
 @Repository
 public interface TokenDAO extends JpaRepository<UserToken, UUID> {
 
-    // Busca un token específico, solo si no está revocado
-    @Query("SELECT ut FROM UserToken ut WHERE ut.token = :token AND ut.revoked = false")
-    Optional<UserToken> findByToken(String token);
-
-    // Busca el usuario asociado a un token no revocado
-    @Query("SELECT ut.user FROM UserToken ut WHERE ut.token = :token AND ut.revoked = false")
-    Optional<User> findUserByToken(String token);
+    // Busca un token específico, solo si no está revocado ni caducado
+    @Query("SELECT ut FROM UserToken ut WHERE ut.token = :token AND ut.revoked = false " +
+    "AND (ut.expiresAt IS NULL OR ut.expiresAt > :now)")
+    Optional<UserToken> findValidToken(String token, Instant now);
+
+    // Busca un token válido junto con su usuario, en una sola consulta
+    @Query("SELECT ut FROM UserToken ut JOIN FETCH ut.user WHERE ut.token = :token AND ut.revoked = false " +
+    "AND (ut.expiresAt IS NULL OR ut.expiresAt > :now)")
+    Optional<UserToken> findValidTokenWithUser(String token, Instant now);
+
+    // Indica si el token ya está guardado, sea cual sea su estado
+    boolean existsByToken(String token);
+
+    // Tokens revocados que aún no han caducado (para reconstruir la lista de revocación de los tokens firmados)
+    @Query("SELECT ut.token AS token, ut.expiresAt AS expiresAt FROM UserToken ut " +
+    "WHERE ut.revoked = true AND ut.expiresAt > :now")
+    List<RevokedToken> findRevokedSignedTokens(Instant now);
+
+    // Asigna caducidad a los tokens anteriores a que existiera: los revocados caducan ya y el resto en legacyExpiry
+    @Modifying
+    @Query("UPDATE UserToken ut SET ut.issuedAt = COALESCE(ut.issuedAt, :now), " +
+    "ut.expiresAt = CASE WHEN ut.revoked = true THEN :now ELSE :legacyExpiry END " +
+    "WHERE ut.expiresAt IS NULL")
+    int assignLegacyExpiry(Instant now, Instant legacyExpiry);
+
+    // Identificadores de tokens caducados (los revocados también lo están), los más antiguos primero
+    @Query("SELECT ut.id FROM UserToken ut WHERE ut.expiresAt <= :now ORDER BY ut.expiresAt")
+    List<UUID> findExpiredIds(Instant now, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM UserToken ut WHERE ut.id IN :ids")
+    int deleteByIds(Collection<UUID> ids);
+
+    interface RevokedToken {
+        String getToken();
+        Instant getExpiresAt();
+    }
 
 }
 
@@ -1,25 +1,50 @@
 package com.strava.dao;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.strava.dto.TrainingSessionDTO;
 import com.strava.entity.TrainingSession;
 import com.strava.entity.enumeration.SportType;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface TrainingSessionDAO extends JpaRepository<TrainingSession, UUID> {
-
-    @Query("SELECT s FROM TrainingSession s JOIN s.user u WHERE (:userId IS NULL OR u.id = :userId) " +
-    "AND (:sport IS NULL OR s.sport = :sport) " +
-    "AND (:startDate IS NULL OR s.startDate >= :startDate) " +
-    "AND (:endDate IS NULL OR s.startDate <= :endDate) " +
-    "ORDER BY s.startDate DESC")
-    Page<TrainingSession> findFilteredSessions(UUID userId, LocalDate startDate, LocalDate endDate, SportType sport, Pageable pageable);
+public interface TrainingSessionDAO extends JpaRepository<TrainingSession, UUID>, JpaSpecificationExecutor<TrainingSession> {
+
+    // Paginación por clave (startDate, id): la página siguiente empieza justo después del cursor, sin OFFSET ni COUNT.
+    // La consulta se construye solo con los filtros presentes para que cada combinación use un plan adecuado
+    default List<TrainingSession> findFilteredSessions(UUID userId, LocalDate startDate, LocalDate endDate, SportType sport,
+                                                       LocalDate cursorDate, UUID cursorId, Limit limit) {
+        Specification<TrainingSession> spec = TrainingSessionSpecifications.filter(userId, startDate, endDate, sport, cursorDate, cursorId);
+        return findBy(spec, query -> limit.isLimited()
+                ? query.sortBy(TrainingSessionSpecifications.KEYSET_ORDER).limit(limit.max()).all()
+                : query.sortBy(TrainingSessionSpecifications.KEYSET_ORDER).all());
+    }
+
+    // Total de sesiones que cumplen el filtro; solo se ejecuta si el cliente lo pide explícitamente
+    default long countFilteredSessions(UUID userId, LocalDate startDate, LocalDate endDate, SportType sport) {
+        return count(TrainingSessionSpecifications.filter(userId, startDate, endDate, sport, null, null));
+    }
+
+    // Todas las sesiones de un usuario en orden cronológico, leídas por bloques del cursor de la base de datos.
+    // Se devuelven como DTOs para que no se acumulen entidades en el contexto de persistencia.
+    // El Stream debe consumirse y cerrarse dentro de una transacción
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.strava.dto.TrainingSessionDTO(s.id, s.title, s.sport, s.distance, s.startDate, s.startTime, s.duration) " +
+    "FROM TrainingSession s WHERE s.user.id = :userId " +
+    "ORDER BY s.startDate, s.startTime, s.id")
+    Stream<TrainingSessionDTO> streamByUserId(UUID userId);
 
 }
@@ -0,0 +1,54 @@
+package com.strava.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.strava.entity.TrainingSession;
+import com.strava.entity.enumeration.SportType;
+
+import jakarta.persistence.criteria.Predicate;
+
+// Filtros de sesiones construidos dinámicamente: solo se añaden los predicados de los parámetros presentes,
+// de modo que cada combinación de filtros genera una consulta distinta que puede usar su propio índice
+public final class TrainingSessionSpecifications {
+
+    // Orden de la paginación por clave (startDate, id)
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "startDate", "id");
+
+    private TrainingSessionSpecifications() {}
+
+    public static Specification<TrainingSession> filter(UUID userId, LocalDate startDate, LocalDate endDate, SportType sport,
+                                                        LocalDate cursorDate, UUID cursorId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (userId != null) {
+                // Se compara la clave ajena directamente, sin JOIN con users
+                predicates.add(cb.equal(root.get("user").get("id"), userId));
+            }
+            if (sport != null) {
+                predicates.add(cb.equal(root.get("sport"), sport));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("startDate"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("startDate"), endDate));
+            }
+            if (cursorDate != null && cursorId != null) {
+                // Empezar justo después del último elemento de la página anterior
+                predicates.add(cb.or(
+                    cb.lessThan(root.get("startDate"), cursorDate),
+                    cb.and(cb.equal(root.get("startDate"), cursorDate), cb.lessThan(root.get("id"), cursorId))
+                ));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
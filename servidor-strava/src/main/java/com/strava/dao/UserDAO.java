@@ -1,9 +1,11 @@
 package com.strava.dao;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.strava.entity.User;
@@ -14,4 +16,14 @@ public interface UserDAO extends JpaRepository<User, UUID> {
     // Busca un usuario por su correo electrónico
     Optional<User> findByEmail(String email);
 
+    // Bloquea la fila del usuario hasta el final de la transacción. Serializa los cambios de progreso de un mismo
+    // usuario (sesiones nuevas, borradas o inscripción en un reto) sin bloquear a los demás usuarios
+    @Query(value = "SELECT id FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockById(UUID userId);
+
+    // Bloquea a todos los usuarios, en el mismo orden que lockById cuando se bloquean varios, para que una
+    // reconstrucción de challenge_progress espere a los cambios en curso y los nuevos esperen a que termine
+    @Query(value = "SELECT id FROM users ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<UUID> lockAll();
+
 }
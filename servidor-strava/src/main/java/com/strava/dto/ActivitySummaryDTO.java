@@ -0,0 +1,60 @@
+package com.strava.dto;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.strava.entity.enumeration.SportType;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Activity totals of a user for one period and sport.")
+public class ActivitySummaryDTO {
+
+    @Schema(description = "First day of the period (the day itself, the Monday of the week or the first day of the month).", example = "2024-12-09")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate period;
+
+    @Schema(description = "Type of sport.", example = "RUNNING")
+    private SportType sport;
+
+    @Schema(description = "Total distance in kilometers.", example = "25.5")
+    private double distance;
+
+    @Schema(description = "Total duration in minutes.", example = "150.0")
+    private double duration;
+
+    @Schema(description = "Number of training sessions.", example = "4")
+    private int sessions;
+
+    public ActivitySummaryDTO(LocalDate period, SportType sport) {
+        this.period = period;
+        this.sport = sport;
+    }
+
+    // Sumar los totales de un día al periodo
+    public void add(double distance, double duration, int sessions) {
+        this.distance += distance;
+        this.duration += duration;
+        this.sessions += sessions;
+    }
+
+    public LocalDate getPeriod() {
+        return period;
+    }
+
+    public SportType getSport() {
+        return sport;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public double getDuration() {
+        return duration;
+    }
+
+    public int getSessions() {
+        return sessions;
+    }
+}
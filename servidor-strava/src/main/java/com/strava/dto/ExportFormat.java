@@ -0,0 +1,35 @@
+package com.strava.dto;
+
+import com.strava.exception.InvalidExportFormatException;
+
+// Formatos disponibles para exportar las sesiones de entrenamiento
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    // Devuelve el formato correspondiente al nombre recibido, sin distinguir mayúsculas
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new InvalidExportFormatException("Format must be 'ndjson' or 'csv'.");
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
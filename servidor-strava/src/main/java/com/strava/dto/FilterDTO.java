@@ -25,16 +25,26 @@ public class FilterDTO {
     @Positive(message = "Limit must be a positive number.")
     private Integer limit = null;
 
+    @Schema(description = "Opaque cursor returned as 'next-cursor' by the previous page. Omit it to get the first page.", example = "MjAyNC0xMi0xMXxmOGViYmZmNi1jMTMzLTQ3NmUtODZiNS1lZDBhZjcwNTZjMGQ")
+    private String cursor = null;
+
+    @Schema(description = "Whether to include the total number of matching results. Requires an extra count query.", example = "false")
+    private Boolean includeTotal = null;
+
     @JsonCreator
     public FilterDTO(
         @JsonProperty("startDate") LocalDate startDate,
         @JsonProperty("endDate") LocalDate endDate,
         @JsonProperty("sport") SportType sport,
-        @JsonProperty("limit") Integer limit) {
+        @JsonProperty("limit") Integer limit,
+        @JsonProperty("cursor") String cursor,
+        @JsonProperty("includeTotal") Boolean includeTotal) {
         this.startDate = startDate;
         this.endDate = endDate;
         this.sport = sport;
         this.limit = limit;
+        this.cursor = cursor;
+        this.includeTotal = includeTotal;
     }
 
     // Getters y Setters
@@ -70,4 +80,20 @@ public class FilterDTO {
         this.limit = limit;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Boolean getIncludeTotal() {
+        return includeTotal;
+    }
+
+    public void setIncludeTotal(Boolean includeTotal) {
+        this.includeTotal = includeTotal;
+    }
+
 }
@@ -0,0 +1,49 @@
+package com.strava.dto;
+
+import java.util.UUID;
+
+public class LeaderboardEntryDTO {
+    private int rank;
+    private UUID userId;
+    private String userName;
+    private double progress;
+
+    public LeaderboardEntryDTO(int rank, UUID userId, String userName, double progress) {
+        this.rank = rank;
+        this.userId = userId;
+        this.userName = userName;
+        this.progress = progress;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public double getProgress() {
+        return progress;
+    }
+
+    public void setProgress(double progress) {
+        this.progress = progress;
+    }
+}
@@ -0,0 +1,56 @@
+package com.strava.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.strava.exception.InvalidCursorException;
+
+// Cursor opaco para la paginación por clave (startDate, id): apunta al último elemento de la página anterior
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDate startDate;
+    private final UUID id;
+
+    public PageCursor(LocalDate startDate, UUID id) {
+        this.startDate = startDate;
+        this.id = id;
+    }
+
+    // Decodifica el cursor recibido en la petición; devuelve null si no se ha indicado
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Malformed cursor.");
+            }
+            return new PageCursor(LocalDate.parse(decoded.substring(0, separator)),
+                                  UUID.fromString(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Malformed cursor.");
+        }
+    }
+
+    public String encode() {
+        String raw = startDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Getters
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
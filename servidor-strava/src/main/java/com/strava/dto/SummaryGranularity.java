@@ -0,0 +1,30 @@
+package com.strava.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+// Agrupación temporal del resumen de actividad
+public enum SummaryGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    // Devuelve la granularidad correspondiente al nombre recibido (sin distinguir mayúsculas) o null si no existe
+    public static SummaryGranularity fromName(String name) {
+        for (SummaryGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(name)) {
+                return granularity;
+            }
+        }
+        return null;
+    }
+
+    // Primer día del periodo al que pertenece la fecha (las semanas empiezan en lunes)
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(DayOfWeek.MONDAY);
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
@@ -68,6 +68,13 @@ public class TrainingSessionDTO {
         this.duration = duration;
     }
 
+    // Constructor usado por las consultas que devuelven directamente DTOs (exportación)
+    public TrainingSessionDTO(UUID id, String title, SportType sport, Double distance,
+                              LocalDate startDate, LocalTime startTime, Double duration) {
+        this(title, sport, distance, startDate, startTime, duration);
+        this.id = id;
+    }
+
     public TrainingSessionDTO(TrainingSession session) {
         this.id = session.getId();
         this.title = session.getTitle();
@@ -1,32 +1,36 @@
 package com.strava.entity;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.Hibernate;
+
 import com.strava.dto.ChallengeDTO;
 import com.strava.entity.enumeration.ObjectiveType;
 import com.strava.entity.enumeration.SportType;
+import com.strava.entity.generator.UuidV7;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "challenges")  // La tabla en la base de datos se llamará 'challenges'
+// Índice para el filtrado por deporte y rango de fechas de /challenges
+@Table(name = "challenges", indexes = @Index(name = "idx_challenges_sport_dates", columnList = "sport, start_date, end_date"))
 public class Challenge {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -50,7 +54,7 @@ public class Challenge {
     private SportType sport;
 
     @ManyToMany(mappedBy = "challenges")  // Relación bidireccional con User
-    private List<User> users = new ArrayList<>();  // Listado de usuarios que participan en el reto
+    private Set<User> users = new HashSet<>();  // Conjunto de usuarios que participan en el reto
 
     // Relación Muchos a Uno con User (usuario que ha creado el reto)
     @ManyToOne
@@ -92,20 +96,24 @@ public class Challenge {
     public SportType getSport() { return sport; }
     public void setSport(SportType sport) { this.sport = sport; }
 
-    // Métodos para los usuarios
-    public List<User> getUsers() { return new ArrayList<>(users); }
-    public void setUsers(List<User> users) { this.users = users; }
+    // Métodos para los usuarios. Vista de solo lectura, sin copiar los participantes
+    public Set<User> getUsers() { return Collections.unmodifiableSet(users); }
+    public void setUsers(Set<User> users) { this.users = users; }
 
+    // Este es el lado inverso de la relación: lo que se persiste es la colección del usuario, así que la de
+    // participantes solo se actualiza si ya está cargada (para inscribir sin cargar nada, ChallengeDAO.addParticipant)
     public void addUser(User user) {
-        if (user != null && !users.contains(user)) {
-            users.add(user);
+        if (user != null) {
+            if (Hibernate.isInitialized(users)) {
+                users.add(user);
+            }
             user.addChallenge(this);  // Aseguramos que la relación sea bidireccional
         }
     }
 
     public void removeUser(User user) {
-        if (user != null && users.contains(user)) {
-            users.remove(user);  // Eliminar el usuario de la lista de usuarios del desafío
+        if (user != null) {
+            users.remove(user);  // Eliminar el usuario del conjunto de usuarios del desafío
             user.removeChallenge(this);  // Aseguramos que la relación sea eliminada en el otro lado también
         }
     }
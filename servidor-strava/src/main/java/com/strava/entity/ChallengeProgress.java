@@ -0,0 +1,59 @@
+package com.strava.entity;
+
+import java.util.UUID;
+
+import com.strava.entity.generator.UuidV7;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+@Entity
+@Table(name = "challenge_progress", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "challenge_id"}))
+public class ChallengeProgress {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    // Usuario participante en el reto
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Reto al que corresponde el progreso
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "challenge_id", nullable = false)
+    private Challenge challenge;
+
+    // Valor acumulado en las unidades del objetivo del reto (distancia o tiempo)
+    @Column(nullable = false)
+    private Double accumulatedValue = 0.0;
+
+    // Constructor vacío para JPA
+    public ChallengeProgress() {}
+
+    public ChallengeProgress(User user, Challenge challenge, Double accumulatedValue) {
+        this.user = user;
+        this.challenge = challenge;
+        this.accumulatedValue = accumulatedValue;
+    }
+
+    // Getters y Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public Challenge getChallenge() { return challenge; }
+    public void setChallenge(Challenge challenge) { this.challenge = challenge; }
+
+    public Double getAccumulatedValue() { return accumulatedValue; }
+    public void setAccumulatedValue(Double accumulatedValue) { this.accumulatedValue = accumulatedValue; }
+}
@@ -0,0 +1,74 @@
+package com.strava.entity;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.strava.entity.enumeration.SportType;
+import com.strava.entity.generator.UuidV7;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Resumen diario de actividad: totales de las sesiones de un usuario en un día y deporte.
+// Se mantiene actualizado en cada escritura de sesiones para no tener que recorrerlas al consultar
+@Entity
+@Table(name = "daily_activity", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "activity_date", "sport"}))
+public class DailyActivity {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDate activityDate;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private SportType sport;
+
+    @Column(nullable = false)
+    private Double totalDistance = 0.0;
+
+    @Column(nullable = false)
+    private Double totalDuration = 0.0;
+
+    @Column(nullable = false)
+    private Integer sessionCount = 0;
+
+    // Constructor vacío para JPA
+    public DailyActivity() {}
+
+    // Getters y Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public LocalDate getActivityDate() { return activityDate; }
+    public void setActivityDate(LocalDate activityDate) { this.activityDate = activityDate; }
+
+    public SportType getSport() { return sport; }
+    public void setSport(SportType sport) { this.sport = sport; }
+
+    public Double getTotalDistance() { return totalDistance; }
+    public void setTotalDistance(Double totalDistance) { this.totalDistance = totalDistance; }
+
+    public Double getTotalDuration() { return totalDuration; }
+    public void setTotalDuration(Double totalDuration) { this.totalDuration = totalDuration; }
+
+    public Integer getSessionCount() { return sessionCount; }
+    public void setSessionCount(Integer sessionCount) { this.sessionCount = sessionCount; }
+}
@@ -6,25 +6,26 @@ import java.util.UUID;
 
 import com.strava.dto.TrainingSessionDTO;
 import com.strava.entity.enumeration.SportType;
+import com.strava.entity.generator.UuidV7;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity  // Marca esta clase como una entidad persistente
-@Table(name = "sessions")
+// Índice para el filtrado por usuario, deporte y rango de fechas de /sessions (también sirve para ordenar por fecha)
+@Table(name = "sessions", indexes = @Index(name = "idx_sessions_user_sport_date", columnList = "user_id, sport, start_date"))
 public class TrainingSession {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)  // Generación automática del ID
+    @UuidV7  // UUID ordenado por tiempo, generado en la aplicación
     private UUID id;
 
     @Column(nullable = false)
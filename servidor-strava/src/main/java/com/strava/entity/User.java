@@ -1,21 +1,23 @@
 package com.strava.entity;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.Hibernate;
+
 import com.strava.dto.RegistrationDTO;
 import com.strava.entity.enumeration.AuthProvider;
+import com.strava.entity.generator.UuidV7;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -27,7 +29,7 @@ import jakarta.persistence.Table;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -54,26 +56,31 @@ public class User {
     @Enumerated(EnumType.STRING)
     private AuthProvider authProvider;
 
+    // Las colecciones son conjuntos: comprobar si contienen un elemento es O(1). Las entidades no redefinen
+    // equals/hashCode, así que se comparan por identidad, que es única dentro de cada contexto de persistencia
+
     // Relación Uno a Varios con TrainingSession
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<TrainingSession> sessions = new ArrayList<>();
+    private Set<TrainingSession> sessions = new HashSet<>();
 
     // Relación Varios a Varios con Challenge
     @ManyToMany
     @JoinTable(
         name = "user_challenges",
         joinColumns = @JoinColumn(name = "user_id"),
-        inverseJoinColumns = @JoinColumn(name = "challenge_id")
+        inverseJoinColumns = @JoinColumn(name = "challenge_id"),
+        // Para buscar los participantes de un reto (el sentido inverso de la relación)
+        indexes = @Index(name = "idx_user_challenges_challenge_user", columnList = "challenge_id, user_id")
     )
-    private List<Challenge> challenges = new ArrayList<>();
+    private Set<Challenge> challenges = new HashSet<>();
 
     // Relación Uno a Varios con Challenge (retos creados por el usuario)
     @OneToMany(mappedBy = "creator", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Challenge> createdChallenges = new ArrayList<>();
+    private Set<Challenge> createdChallenges = new HashSet<>();
 
     // Relación Uno a Varios con UserToken
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<UserToken> tokens = new ArrayList<>();
+    private Set<UserToken> tokens = new HashSet<>();
 
     public User() {
         // Constructor vacío requerido por JPA
@@ -118,79 +125,87 @@ public class User {
     public AuthProvider getAuthProvider() { return authProvider; }
     public void setAuthProvider(AuthProvider authProvider) { this.authProvider = authProvider; }
 
-    // Métodos de conveniencia para sesiones
-    public List<TrainingSession> getSessions() { return sessions; }
-    public void setSessions(List<TrainingSession> sessions) { this.sessions = sessions; }
+    // Métodos de conveniencia para sesiones.
+    // En las relaciones inversas (sesiones, retos creados y tokens) la clave ajena está en el otro lado, así que
+    // al añadir basta con asignarla: la colección solo se actualiza si ya está cargada y nunca se carga para ello.
+    // Por eso los elementos nuevos se guardan con su DAO y no por cascada desde el usuario
+    public Set<TrainingSession> getSessions() { return sessions; }
+    public void setSessions(Set<TrainingSession> sessions) { this.sessions = sessions; }
 
     public void addSession(TrainingSession session) {
-        if (session != null && !sessions.contains(session)) {
-            sessions.add(session);
+        if (session != null) {
             session.setUser(this);
+            addIfLoaded(sessions, session);
         }
     }
 
+    // Quitar sí carga la colección: orphanRemoval solo borra los elementos que se eliminan de ella
     public void removeSession(TrainingSession session) {
-        if (session != null && sessions.contains(session)) {
-            sessions.remove(session);
+        if (session != null && sessions.remove(session)) {
             session.setUser(null);
         }
     }
 
-    // Métodos de conveniencia para retos
-    public List<Challenge> getChallenges() { return challenges; }
-    public void setChallenges(List<Challenge> challenges) { this.challenges = challenges; }
+    // Métodos de conveniencia para retos (lado propietario de user_challenges: la colección es la que se persiste)
+    public Set<Challenge> getChallenges() { return challenges; }
+    public void setChallenges(Set<Challenge> challenges) { this.challenges = challenges; }
 
     public void addChallenge(Challenge challenge) {
-        if (challenge != null && !challenges.contains(challenge)) {
+        if (challenge != null) {
             challenges.add(challenge);
         }
     }
 
     public void removeChallenge(Challenge challenge) {
-        if (challenge != null && challenges.contains(challenge)) {
+        if (challenge != null) {
             challenges.remove(challenge);
         }
     }
 
     // Métodos de conveniencia para retos creados
-    public List<Challenge> getCreatedChallenges() { return createdChallenges; }
-    public void setCreatedChallenges(List<Challenge> createdChallenges) { this.createdChallenges = createdChallenges; }
+    public Set<Challenge> getCreatedChallenges() { return createdChallenges; }
+    public void setCreatedChallenges(Set<Challenge> createdChallenges) { this.createdChallenges = createdChallenges; }
 
     public void addCreatedChallenge(Challenge challenge) {
-        if (challenge != null && !createdChallenges.contains(challenge)) {
-            createdChallenges.add(challenge);
+        if (challenge != null) {
             challenge.setCreator(this);
+            addIfLoaded(createdChallenges, challenge);
         }
     }
 
     public void removeCreatedChallenge(Challenge challenge) {
-        if (challenge != null && createdChallenges.contains(challenge)) {
-            createdChallenges.remove(challenge);
+        if (challenge != null && createdChallenges.remove(challenge)) {
             challenge.setCreator(null);
         }
     }
 
     // Métodos de conveniencia para tokens
-    public List<UserToken> getTokens() { return tokens; }
-    public void setTokens(List<UserToken> tokens) { this.tokens = tokens; }
+    public Set<UserToken> getTokens() { return tokens; }
+    public void setTokens(Set<UserToken> tokens) { this.tokens = tokens; }
 
     public void addToken(UserToken token) {
-        if (token != null && !tokens.contains(token)) {
-            tokens.add(token);
+        if (token != null) {
             token.setUser(this);
+            addIfLoaded(tokens, token);
         }
     }
 
     public void removeToken(UserToken token) {
-        if (token != null && tokens.contains(token)) {
-            tokens.remove(token);
+        if (token != null && tokens.remove(token)) {
             token.setUser(null);
         }
     }
 
+    // Se comprueba la propiedad del token por su clave ajena, sin recorrer ni cargar los tokens del usuario
     public void revokeToken(UserToken token) {
-        if (token != null && tokens.contains(token)) {
-            token.setRevoked(true);
+        if (token != null && token.getUser() != null && id != null && id.equals(token.getUser().getId())) {
+            token.revoke();
+        }
+    }
+
+    private static <T> void addIfLoaded(Set<T> collection, T element) {
+        if (Hibernate.isInitialized(collection)) {
+            collection.add(element);
         }
     }
 }
@@ -1,21 +1,24 @@
 package com.strava.entity;
 
+import java.time.Instant;
 import java.util.UUID;
 
+import com.strava.entity.generator.UuidV7;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "user_tokens")
+// Índice para que el barrido de tokens caducados recorra solo las filas que va a borrar
+@Table(name = "user_tokens", indexes = @Index(name = "idx_user_tokens_expires_at", columnList = "expires_at"))
 public class UserToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
 
     @ManyToOne
@@ -28,11 +31,20 @@ public class UserToken {
     @Column(nullable = false)
     private Boolean revoked = false;  // Para saber si el token ha sido revocado
 
-    // Constructor para crear un UserToken con un token y un usuario
-    public UserToken(User user, String token) {
+    // Admiten nulos por los tokens emitidos antes de que existieran; el barrido les asigna una caducidad
+    @Column(name = "issued_at")
+    private Instant issuedAt;
+
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    // Constructor para crear un UserToken con un token, un usuario y su periodo de validez
+    public UserToken(User user, String token, Instant issuedAt, Instant expiresAt) {
         this.user = user;
         this.token = token;
         this.revoked = false; // Por defecto, el token no está revocado
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
     }
 
     public UserToken() {
@@ -71,4 +83,26 @@ public class UserToken {
     public void setRevoked(Boolean revoked) {
         this.revoked = revoked;
     }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(Instant issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // Revocar el token y darlo por caducado, para que el barrido lo borre en su siguiente ejecución
+    public void revoke() {
+        this.revoked = true;
+        this.expiresAt = Instant.now();
+    }
 }
@@ -0,0 +1,61 @@
+package com.strava.entity.generator;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+// Generador de UUID versión 7 (RFC 9562): los 48 bits altos son el instante en milisegundos, de modo que
+// los identificadores nuevos se insertan al final del índice en lugar de repartirse por todo el árbol.
+// Los UUID aleatorios (versión 4) ya existentes siguen siendo válidos; solo cambia cómo se generan los nuevos
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int COUNTER_BITS = 12;
+
+    // Último valor emitido: milisegundos << 12 | contador dentro del mismo milisegundo. Compartido por todas
+    // las entidades para que los identificadores sean estrictamente crecientes dentro del proceso
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        long timestampAndCounter = nextTimestampAndCounter();
+        long randomBits = ThreadLocalRandom.current().nextLong();
+
+        // unix_ts_ms (48) | versión (4) | contador (12)
+        long mostSignificant = (timestampAndCounter >>> COUNTER_BITS) << 16
+                | 0x7000L
+                | (timestampAndCounter & 0xFFFL);
+        // variante (2) | aleatorio (62)
+        long leastSignificant = (randomBits & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    // Si el reloj no avanza (o retrocede) se incrementa el contador; si este se desborda, se toma el milisegundo siguiente
+    private static long nextTimestampAndCounter() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        while (true) {
+            long last = lastTimestampAndCounter.get();
+            long next = Math.max(now, last + 1);
+            if (lastTimestampAndCounter.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -37,6 +37,28 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
     }
 
+    // Manejador para la excepción de cursor de paginación inválido
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<?> handleInvalidCursorException(InvalidCursorException ex) {
+        Map<String, Object> response = new HashMap<>();
+        Map<String, String> errorDetails = new HashMap<>();
+        errorDetails.put("cursor", ex.getMessage());
+
+        response.put("errors", errorDetails);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    // Manejador para la excepción de formato de exportación no soportado
+    @ExceptionHandler(InvalidExportFormatException.class)
+    public ResponseEntity<?> handleInvalidExportFormatException(InvalidExportFormatException ex) {
+        Map<String, Object> response = new HashMap<>();
+        Map<String, String> errorDetails = new HashMap<>();
+        errorDetails.put("format", ex.getMessage());
+
+        response.put("errors", errorDetails);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     // Manejador para MissingRequestHeaderException, cuando falta un encabezado requerido (por ejemplo, 'Authorization')
     @ExceptionHandler(MissingRequestHeaderException.class)
     public ResponseEntity<?> handleMissingRequestHeader(MissingRequestHeaderException ex) {
@@ -1,8 +1,13 @@
 package com.strava.external;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface AuthGateway {
     public Optional<Boolean> validateEmail(String email);
     public Optional<Boolean> validatePassword(String email, String password);
+
+    // Variantes no bloqueantes: el resultado se completa cuando responde el proveedor
+    public CompletableFuture<Optional<Boolean>> validateEmailAsync(String email);
+    public CompletableFuture<Optional<Boolean>> validatePasswordAsync(String email, String password);
 }
@@ -7,10 +7,19 @@ import com.strava.entity.enumeration.AuthProvider;
 @Component
 public class FactoriaGateway {
 
+    // Gateways compartidos (singleton), para reutilizar sus conexiones entre peticiones
+    private final MetaAuthGateway metaAuthGateway;
+    private final GoogleAuthGateway googleAuthGateway;
+
+    public FactoriaGateway(MetaAuthGateway metaAuthGateway, GoogleAuthGateway googleAuthGateway) {
+        this.metaAuthGateway = metaAuthGateway;
+        this.googleAuthGateway = googleAuthGateway;
+    }
+
     public AuthGateway createGateway(AuthProvider provider) {
         return switch (provider) {
-            case META -> new MetaAuthGateway();
-            case GOOGLE -> new GoogleAuthGateway();
+            case META -> metaAuthGateway;
+            case GOOGLE -> googleAuthGateway;
         };
     }
 }
@@ -2,46 +2,43 @@ package com.strava.external;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class GoogleAuthGateway implements AuthGateway {
 
-    private static final String GOOGLE_API_BASE_URL = "http://localhost:8081/api/google";
-    private final HttpClient httpClient;
     private static final Logger logger = LoggerFactory.getLogger(GoogleAuthGateway.class);
 
-    public GoogleAuthGateway() {
-        this.httpClient = HttpClient.newHttpClient();
+    // Cliente HTTP compartido: reutiliza conexiones entre peticiones en lugar de crear uno por gateway
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    public GoogleAuthGateway(HttpClient authHttpClient,
+                             @Value("${strava.google.base-url:http://localhost:8081/api/google}") String baseUrl,
+                             @Value("${strava.http.request-timeout-ms:5000}") long requestTimeoutMillis) {
+        this.httpClient = authHttpClient;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
     }
 
     @Override
     public Optional<Boolean> validateEmail(String email) {
-        String url = GOOGLE_API_BASE_URL + "/verify-email?email=" + email;
-
         try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                String responseBody = response.body();
-                // Parse the response to check if the email is registered
-                return Optional.of(responseBody.contains("\"registered\":true"));
-            } else {
-                logger.warn("Failed to validate email {}. HTTP Status: {}", email, response.statusCode());
-                return Optional.of(false);
-            }
+            HttpResponse<String> response = httpClient.send(validateEmailRequest(email), HttpResponse.BodyHandlers.ofString());
+            return Optional.of(parseValidateEmail(email, response));
         } catch (IOException ex) {
             logger.error("IO error occurred while validating email: {}", email, ex);
             return Optional.empty();
@@ -54,27 +51,9 @@ public class GoogleAuthGateway implements AuthGateway {
 
     @Override
     public Optional<Boolean> validatePassword(String email, String password) {
-        String url = GOOGLE_API_BASE_URL + "/validate";
-
         try {
-            String requestBody = String.format("{\"email\":\"%s\", \"password\":\"%s\"}", email, password);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .header("Content-Type", "application/json")
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                String responseBody = response.body();
-                // Parse the response to check if credentials are valid
-                return Optional.of(responseBody.contains("\"valid\":true"));
-            } else {
-                logger.info("Invalid password for email {}. HTTP Status: {}", email, response.statusCode());
-                return Optional.of(false);
-            }
+            HttpResponse<String> response = httpClient.send(validatePasswordRequest(email, password), HttpResponse.BodyHandlers.ofString());
+            return Optional.of(parseValidatePassword(email, response));
         } catch (IOException ex) {
             logger.error("IO error occurred while validating password for email: {}", email, ex);
             return Optional.empty();
@@ -84,5 +63,65 @@ public class GoogleAuthGateway implements AuthGateway {
             return Optional.empty();
         }
     }
-    
+
+    @Override
+    public CompletableFuture<Optional<Boolean>> validateEmailAsync(String email) {
+        return httpClient.sendAsync(validateEmailRequest(email), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> Optional.of(parseValidateEmail(email, response)))
+                .exceptionally(ex -> {
+                    logger.error("Error occurred while validating email: {}", email, ex);
+                    return Optional.empty();
+                });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Boolean>> validatePasswordAsync(String email, String password) {
+        return httpClient.sendAsync(validatePasswordRequest(email, password), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> Optional.of(parseValidatePassword(email, response)))
+                .exceptionally(ex -> {
+                    logger.error("Error occurred while validating password for email: {}", email, ex);
+                    return Optional.empty();
+                });
+    }
+
+    private HttpRequest validateEmailRequest(String email) {
+        String url = baseUrl + "/verify-email?email=" + URLEncoder.encode(email, StandardCharsets.UTF_8);
+
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest validatePasswordRequest(String email, String password) {
+        String url = baseUrl + "/validate";
+        String requestBody = String.format("{\"email\":\"%s\", \"password\":\"%s\"}", email, password);
+
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(requestTimeout)
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .header("Content-Type", "application/json")
+                .build();
+    }
+
+    private boolean parseValidateEmail(String email, HttpResponse<String> response) {
+        if (response.statusCode() == 200) {
+            // Parse the response to check if the email is registered
+            return response.body().contains("\"registered\":true");
+        }
+        logger.warn("Failed to validate email {}. HTTP Status: {}", email, response.statusCode());
+        return false;
+    }
+
+    private boolean parseValidatePassword(String email, HttpResponse<String> response) {
+        if (response.statusCode() == 200) {
+            // Parse the response to check if credentials are valid
+            return response.body().contains("\"valid\":true");
+        }
+        logger.info("Invalid password for email {}. HTTP Status: {}", email, response.statusCode());
+        return false;
+    }
+
 }
@@ -1,11 +1,9 @@
 package com.strava.external;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,17 +11,23 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class MetaAuthGateway implements AuthGateway {
-    private static final String HOST = "localhost";
-    private static final int PORT = 8082;
     private static final Logger logger = Logger.getLogger(MetaAuthGateway.class.getName());
 
+    private final MetaConnectionPool connectionPool;
+    private final ExecutorService executor;
+
+    public MetaAuthGateway(MetaConnectionPool connectionPool, ExecutorService authGatewayExecutor) {
+        this.connectionPool = connectionPool;
+        this.executor = authGatewayExecutor;
+    }
+
     @Override
     public Optional<Boolean> validateEmail(String email) {
         try {
             String response = sendRequest("VALIDATE_EMAIL " + email);
             return Optional.of(response.equals("EMAIL_VALID"));
         } catch (IOException e) {
-            logger.log(Level.SEVERE, "Error communicating with MetaAuthServer while validating email", e);
+            logger.log(Level.SEVERE, "Error communicating with MetaAuthServer while validating email " + email, e);
             return Optional.empty();
         }
     }
@@ -34,26 +38,27 @@ public class MetaAuthGateway implements AuthGateway {
             String response = sendRequest("VALIDATE_PASSWORD " + email + " " + password);
             return Optional.of(response.equals("PASSWORD_VALID"));
         } catch (IOException e) {
-            logger.log(Level.SEVERE, "Error communicating with MetaAuthServer while validating password", e);
+            logger.log(Level.SEVERE, "Error communicating with MetaAuthServer while validating password for " + email, e);
             return Optional.empty();
         }
     }
 
+    // El protocolo de Meta es bloqueante: las variantes asíncronas se ejecutan en el ejecutor compartido
+    @Override
+    public CompletableFuture<Optional<Boolean>> validateEmailAsync(String email) {
+        return CompletableFuture.supplyAsync(() -> validateEmail(email), executor);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Boolean>> validatePasswordAsync(String email, String password) {
+        return CompletableFuture.supplyAsync(() -> validatePassword(email, password), executor);
+    }
+
+    // La línea de petición puede llevar la contraseña en claro: nunca se escribe en el log.
+    // Los errores los registra quien llama, solo con el email
     private String sendRequest(String request) throws IOException {
-        try (Socket socket = new Socket(HOST, PORT);
-             PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
-             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
-            out.println(request);
-            String response = in.readLine();
-            if (response == null) {
-                logger.warning("Received null response from server");
-            } else {
-                logger.info("Received response: " + response);
-            }
-            return response != null ? response : "ERROR";
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, "Error during request to MetaAuthServer: " + request, e);
-            throw e;
-        }
+        String response = connectionPool.send(request);
+        logger.info("Received response: " + response);
+        return response;
     }
 }
@@ -0,0 +1,192 @@
+package com.strava.external;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+// Pool de conexiones persistentes con MetaAuthServer (protocolo de una línea por comando y respuesta)
+@Component
+public class MetaConnectionPool {
+
+    private static final Logger logger = Logger.getLogger(MetaConnectionPool.class.getName());
+
+    private final String host;
+    private final int port;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final int timeoutMillis;
+
+    // Limita el número de conexiones en uso simultáneamente
+    private final Semaphore permits;
+
+    // Conexiones libres, la más reciente al principio
+    private final ConcurrentLinkedDeque<MetaConnection> idle = new ConcurrentLinkedDeque<>();
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public MetaConnectionPool(@Value("${strava.meta.host:localhost}") String host,
+                              @Value("${strava.meta.port:8082}") int port,
+                              @Value("${strava.meta.pool.max-size:8}") int maxSize,
+                              @Value("${strava.meta.pool.idle-timeout-seconds:30}") long idleTimeoutSeconds,
+                              @Value("${strava.meta.pool.timeout-ms:5000}") int timeoutMillis) {
+        this.host = host;
+        this.port = port;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutSeconds * 1000;
+        this.timeoutMillis = timeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    // Envía un comando y devuelve la línea de respuesta, reutilizando una conexión del pool si es posible
+    public String send(String request) throws IOException {
+        acquirePermit();
+        try {
+            MetaConnection connection = borrow();
+            try {
+                return exchange(connection, request);
+            } catch (IOException e) {
+                if (connection.isFresh()) {
+                    throw e;
+                }
+                // La conexión reutilizada pudo haber sido cerrada por el servidor: reintentar con una nueva
+                logger.log(Level.FINE, "Pooled connection to MetaAuthServer failed, retrying with a new one", e);
+                return exchange(open(), request);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private String exchange(MetaConnection connection, String request) throws IOException {
+        try {
+            String response = connection.exchange(request);
+            connection.markUsed();
+            idle.offerFirst(connection);
+            return response;
+        } catch (IOException e) {
+            discard(connection);
+            throw e;
+        }
+    }
+
+    private void acquirePermit() throws IOException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                exhausted.increment();
+                throw new IOException("Timed out waiting for a MetaAuthServer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a MetaAuthServer connection", e);
+        }
+    }
+
+    private MetaConnection borrow() throws IOException {
+        MetaConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (connection.idleMillis() < idleTimeoutMillis && !connection.isClosed()) {
+                reused.increment();
+                return connection;
+            }
+            discard(connection);
+        }
+        return open();
+    }
+
+    private MetaConnection open() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            socket.setTcpNoDelay(true);
+            created.increment();
+            return new MetaConnection(socket);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private void discard(MetaConnection connection) {
+        discarded.increment();
+        connection.close();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("maxSize", maxSize);
+        stats.put("idleTimeoutSeconds", idleTimeoutMillis / 1000);
+        stats.put("active", maxSize - permits.availablePermits());
+        stats.put("idle", idle.size());
+        stats.put("created", created.sum());
+        stats.put("reused", reused.sum());
+        stats.put("discarded", discarded.sum());
+        stats.put("exhausted", exhausted.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        MetaConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            connection.close();
+        }
+    }
+
+    private static class MetaConnection {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+        private long lastUsed = 0;
+
+        MetaConnection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            this.out = new PrintWriter(socket.getOutputStream(), true);
+        }
+
+        String exchange(String request) throws IOException {
+            out.println(request);
+            if (out.checkError()) {
+                throw new IOException("Error writing to MetaAuthServer");
+            }
+            String response = in.readLine();
+            if (response == null) {
+                throw new IOException("Connection closed by MetaAuthServer");
+            }
+            return response;
+        }
+
+        boolean isFresh() { return lastUsed == 0; }
+        void markUsed() { lastUsed = System.currentTimeMillis(); }
+        long idleMillis() { return System.currentTimeMillis() - lastUsed; }
+        boolean isClosed() { return socket.isClosed(); }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Error closing MetaAuthServer connection", e);
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ import com.strava.dto.FilterDTO;
 import com.strava.dto.ResponseWrapper;
 import com.strava.dto.TokenDTO;
 import com.strava.service.ChallengeService;
+import com.strava.service.LeaderboardService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -34,9 +35,11 @@ import jakarta.validation.Valid;
 public class ChallengeController {
 
     private final ChallengeService challengeService;
+    private final LeaderboardService leaderboardService;
 
-    public ChallengeController(ChallengeService challengeService) {
+    public ChallengeController(ChallengeService challengeService, LeaderboardService leaderboardService) {
         this.challengeService = challengeService;
+        this.leaderboardService = leaderboardService;
     }
 
     @Operation(summary = "Create a new challenge", description = "Creates a new challenge for a user.")
@@ -59,7 +62,7 @@ public class ChallengeController {
         return response.toResponseEntity();
     }
 
-    @Operation(summary = "Get challenges", description = "Fetches challenges based on filters like date and sport. Active challenges are retrieved by default")
+    @Operation(summary = "Get challenges", description = "Fetches challenges based on filters like date and sport. Active challenges are retrieved by default. When a limit is given and more results exist, the response includes a 'next-cursor' to pass as 'cursor' for the next page. Set 'includeTotal' to also get the total number of matches.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Challenges retrieved successfully",
             content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"challenges\": [\n    {\n      \"id\": \"94d6a98a-6594-4c31-825b-de588f701a47\",\n      \"name\": \"Marathon Training\",\n      \"startDate\": \"2024-01-01\",\n      \"endDate\": \"2024-01-31\",\n      \"objectiveValue\": 42.2,\n      \"objectiveType\": \"DISTANCIA\",\n      \"sport\": \"RUNNING\",\n      \"creatorId\": \"94d6a98a-6594-4c31-825b-de588f701a47\"\n    },\n    {\n      \"id\": \"94d6a98a-6594-4c31-825b-de588f701a48\",\n      \"name\": \"Half Marathon Challenge\",\n      \"startDate\": \"2024-02-01\",\n      \"endDate\": \"2024-02-15\",\n      \"objectiveValue\": 21.1,\n      \"objectiveType\": \"DISTANCIA\",\n      \"sport\": \"RUNNING\",\n      \"creatorId\": \"94d6a98a-6594-4c31-825b-de588f701a47\"\n    }\n  ]\n}"))),
@@ -146,6 +149,23 @@ public class ChallengeController {
         return response.toResponseEntity();
     }
 
+    @Operation(summary = "Get challenge leaderboard", description = "Returns the top participants of a challenge ranked by progress. When 'around' is given, the response also includes a window of the same size centered on that user. The ranking is kept in memory and updated as sessions are saved, so participants are not sorted on every request.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Leaderboard retrieved successfully",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"participants\": 25,\n  \"leaderboard\": [\n    {\n      \"rank\": 1,\n      \"userId\": \"3fa85f64-5717-4562-b3fc-2c963f66afa6\",\n      \"userName\": \"John Doe\",\n      \"progress\": 75.5\n    },\n    {\n      \"rank\": 2,\n      \"userId\": \"94d6a98a-6594-4c31-825b-de588f701a47\",\n      \"userName\": \"Jane Smith\",\n      \"progress\": 50.0\n    }\n  ],\n  \"around\": [\n    {\n      \"rank\": 2,\n      \"userId\": \"94d6a98a-6594-4c31-825b-de588f701a47\",\n      \"userName\": \"Jane Smith\",\n      \"progress\": 50.0\n    }\n  ]\n}"))),
+        @ApiResponse(responseCode = "400", description = "Bad Request - Invalid top",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"errors\": {\n    \"top\": \"Top must be between 1 and 100.\"\n  }\n}"))),
+        @ApiResponse(responseCode = "404", description = "Not Found - Challenge not found or user not participating",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"error\": \"Challenge not found.\"\n}")))
+    })
+    @GetMapping("/{challengeId}/leaderboard")
+    public ResponseEntity<?> getChallengeLeaderboard(@PathVariable UUID challengeId,
+                                                     @Parameter(description = "Number of participants to return (1-100).", example = "10") @RequestParam(defaultValue = "10") int top,
+                                                     @Parameter(description = "User to center an extra window of the ranking on.") @RequestParam(required = false) UUID around) {
+        ResponseWrapper response = leaderboardService.getLeaderboard(challengeId, top, around);
+        return response.toResponseEntity();
+    }
+
     @Operation(summary = "Get challenge by ID", description = "Fetches a challenge by its ID.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Challenge retrieved successfully",
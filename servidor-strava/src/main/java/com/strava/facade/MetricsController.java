@@ -0,0 +1,80 @@
+package com.strava.facade;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.strava.cache.CredentialCache;
+import com.strava.cache.TokenCache;
+import com.strava.dto.ResponseWrapper;
+import com.strava.external.MetaConnectionPool;
+import com.strava.service.TokenSweeper;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    private final TokenCache tokenCache;
+    private final MetaConnectionPool metaConnectionPool;
+    private final CredentialCache credentialCache;
+    private final TokenSweeper tokenSweeper;
+
+    public MetricsController(TokenCache tokenCache, MetaConnectionPool metaConnectionPool, CredentialCache credentialCache,
+                             TokenSweeper tokenSweeper) {
+        this.tokenCache = tokenCache;
+        this.metaConnectionPool = metaConnectionPool;
+        this.credentialCache = credentialCache;
+        this.tokenSweeper = tokenSweeper;
+    }
+
+    @Operation(summary = "Get token cache statistics", description = "Returns the size and hit/miss/eviction counters of the token cache.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"enabled\": true,\n  \"size\": 42,\n  \"maxSize\": 10000,\n  \"ttlSeconds\": 300,\n  \"hits\": 1520,\n  \"misses\": 48,\n  \"evictions\": 6,\n  \"invalidations\": 3\n}")))
+    })
+    @GetMapping("/token-cache")
+    public ResponseEntity<?> getTokenCacheStats() {
+        ResponseWrapper response = new ResponseWrapper(200, tokenCache.getStats());
+        return response.toResponseEntity();
+    }
+
+    @Operation(summary = "Get Meta connection pool statistics", description = "Returns the usage counters of the pooled connections to MetaAuthServer.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"maxSize\": 8,\n  \"idleTimeoutSeconds\": 30,\n  \"active\": 1,\n  \"idle\": 3,\n  \"created\": 4,\n  \"reused\": 250,\n  \"discarded\": 0,\n  \"exhausted\": 0\n}")))
+    })
+    @GetMapping("/meta-pool")
+    public ResponseEntity<?> getMetaPoolStats() {
+        ResponseWrapper response = new ResponseWrapper(200, metaConnectionPool.getStats());
+        return response.toResponseEntity();
+    }
+
+    @Operation(summary = "Get credential cache statistics", description = "Returns the size and hit rate of the login credential verification cache.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"enabled\": true,\n  \"size\": 12,\n  \"maxSize\": 10000,\n  \"ttlSeconds\": 60,\n  \"hits\": 90,\n  \"misses\": 30,\n  \"hitRate\": 0.75,\n  \"evictions\": 4,\n  \"invalidations\": 1\n}")))
+    })
+    @GetMapping("/credential-cache")
+    public ResponseEntity<?> getCredentialCacheStats() {
+        ResponseWrapper response = new ResponseWrapper(200, credentialCache.getStats());
+        return response.toResponseEntity();
+    }
+
+    @Operation(summary = "Get token sweeper statistics", description = "Returns the size of the user_tokens table and the duration and results of the expired token sweeps.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"enabled\": true,\n  \"tableSize\": 1250,\n  \"batchSize\": 1000,\n  \"sweeps\": 12,\n  \"deleted\": 4830,\n  \"lastDeleted\": 37,\n  \"legacyTokens\": 0,\n  \"lastSweepMs\": 8,\n  \"maxSweepMs\": 215,\n  \"avgSweepMs\": 24.5,\n  \"lastSweepAt\": \"2024-01-01T10:00:00Z\"\n}")))
+    })
+    @GetMapping("/token-sweeper")
+    public ResponseEntity<?> getTokenSweeperStats() {
+        ResponseWrapper response = new ResponseWrapper(200, tokenSweeper.getStats());
+        return response.toResponseEntity();
+    }
+}
@@ -1,7 +1,12 @@
 package com.strava.facade;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.UUID;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,12 +17,18 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.strava.dto.ExportFormat;
 import com.strava.dto.FilterDTO;
 import com.strava.dto.ResponseWrapper;
 import com.strava.dto.TokenDTO;
 import com.strava.dto.TrainingSessionDTO;
+import com.strava.entity.enumeration.SportType;
+import com.strava.service.DailyActivityService;
+import com.strava.service.TrainingSessionBatchService;
 import com.strava.service.TrainingSessionService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,9 +46,15 @@ import jakarta.validation.Valid;
 public class TrainingSessionController {
 
     private final TrainingSessionService trainingSessionService;
+    private final TrainingSessionBatchService trainingSessionBatchService;
+    private final DailyActivityService dailyActivityService;
 
-    public TrainingSessionController(TrainingSessionService trainingSessionService) {
+    public TrainingSessionController(TrainingSessionService trainingSessionService,
+                                     TrainingSessionBatchService trainingSessionBatchService,
+                                     DailyActivityService dailyActivityService) {
         this.trainingSessionService = trainingSessionService;
+        this.trainingSessionBatchService = trainingSessionBatchService;
+        this.dailyActivityService = dailyActivityService;
     }
 
     @Operation(summary = "Create a new training session", description = "Creates a new training session for a user.")
@@ -52,6 +69,7 @@ public class TrainingSessionController {
             }))
     })
     @PostMapping
+    @Transactional
     @SecurityRequirement(name = "token")
     public ResponseEntity<?> createSession(@Parameter(hidden = true) @RequestHeader("Authorization") String authorizationHeader, @RequestBody @Valid TrainingSessionDTO session) {
         TokenDTO tokenDTO = new TokenDTO(authorizationHeader);
@@ -59,7 +77,43 @@ public class TrainingSessionController {
         return response.toResponseEntity();
     }
 
-    @Operation(summary = "Get user training sessions", description = "Fetches training sessions for a user with optional date range and limit.")
+    @Operation(summary = "Create training sessions in bulk (JSON array)", description = "Creates many training sessions for a user from a JSON array. Every item is validated on its own and valid sessions are stored in chunks, each chunk in its own transaction. If the array is malformed, processing stops there and the items read before the error are kept.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed. 'results' only lists the items that were rejected or could not be saved, up to strava.sessions.batch.max-reported-items; 'truncated' is true when more were left out",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"created\": 1,\n  \"rejected\": 1,\n  \"failed\": 0,\n  \"truncated\": false,\n  \"results\": [\n    {\n      \"index\": 1,\n      \"status\": \"rejected\",\n      \"errors\": {\n        \"distance\": \"Distance must be greater than zero.\"\n      }\n    }\n  ]\n}"))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid token",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"error\": \"Invalid token.\"\n}"))),
+        @ApiResponse(responseCode = "400", description = "Bad Request - Malformed JSON array or missing token",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"errors\": {\n    \"token\": \"Required request header 'Authorization' with user token is missing\"\n  }\n}")))
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @SecurityRequirement(name = "token")
+    public ResponseEntity<?> createSessionsFromArray(@Parameter(hidden = true) @RequestHeader("Authorization") String authorizationHeader,
+                                                     @Parameter(hidden = true) InputStream body) throws IOException {
+        TokenDTO tokenDTO = new TokenDTO(authorizationHeader);
+        ResponseWrapper response = trainingSessionBatchService.createSessionsFromArray(tokenDTO, body);
+        return response.toResponseEntity();
+    }
+
+    @Operation(summary = "Create training sessions in bulk (NDJSON)", description = "Creates many training sessions for a user from an NDJSON stream (one session per line). Every line is validated on its own, so a malformed line only rejects that item. Valid sessions are stored in chunks, each chunk in its own transaction.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed. 'results' only lists the items that were rejected or could not be saved, up to strava.sessions.batch.max-reported-items; 'truncated' is true when more were left out",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"created\": 1,\n  \"rejected\": 1,\n  \"failed\": 0,\n  \"truncated\": false,\n  \"results\": [\n    {\n      \"index\": 1,\n      \"status\": \"rejected\",\n      \"errors\": {\n        \"distance\": \"Distance must be greater than zero.\"\n      }\n    }\n  ]\n}"))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid token",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"error\": \"Invalid token.\"\n}"))),
+        @ApiResponse(responseCode = "400", description = "Bad Request - Missing token",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"errors\": {\n    \"token\": \"Required request header 'Authorization' with user token is missing\"\n  }\n}")))
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @SecurityRequirement(name = "token")
+    public ResponseEntity<?> createSessionsFromNdjson(@Parameter(hidden = true) @RequestHeader("Authorization") String authorizationHeader,
+                                                      @Parameter(hidden = true) InputStream body) throws IOException {
+        TokenDTO tokenDTO = new TokenDTO(authorizationHeader);
+        ResponseWrapper response = trainingSessionBatchService.createSessionsFromNdjson(tokenDTO, body);
+        return response.toResponseEntity();
+    }
+
+    @Operation(summary = "Get user training sessions", description = "Fetches training sessions for a user with optional date range and limit. When a limit is given and more results exist, the response includes a 'next-cursor' to pass as 'cursor' for the next page. Set 'includeTotal' to also get the total number of matches.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Sessions retrieved successfully",
             content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"sessions\": [\n    {\n      \"id\": \"f8ebbff6-c133-476e-86b5-ed0af7056c0d\",\n      \"title\": \"Morning Run\",\n      \"sport\": \"RUNNING\",\n      \"distance\": 5,\n      \"startDate\": \"2024-12-11\",\n      \"startTime\": \"06:30\",\n      \"duration\": 30\n    },\n    {\n      \"id\": \"f8ebbff6-c133-476e-86b5-ed0af7056c0e\",\n      \"title\": \"Evening Walk\",\n      \"sport\": \"CICLISMO\",\n      \"distance\": 3,\n      \"startDate\": \"2024-12-11\",\n      \"startTime\": \"18:00\",\n      \"duration\": 45\n    }\n  ]\n}"))),
@@ -79,6 +133,52 @@ public class TrainingSessionController {
         return response.toResponseEntity();
     }
 
+    @Operation(summary = "Get user activity summary", description = "Returns the user's activity totals (distance, duration and number of sessions) grouped by sport and by day, week or month. The totals come from daily rollups kept up to date on every session write, so sessions are not read one by one.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Summary retrieved successfully",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"summary\": [\n    {\n      \"period\": \"2024-12-09\",\n      \"sport\": \"RUNNING\",\n      \"distance\": 25.5,\n      \"duration\": 150.0,\n      \"sessions\": 4\n    },\n    {\n      \"period\": \"2024-12-09\",\n      \"sport\": \"CICLISMO\",\n      \"distance\": 60.0,\n      \"duration\": 120.0,\n      \"sessions\": 2\n    }\n  ]\n}"))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid token",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"error\": \"Invalid token.\"\n}"))),
+        @ApiResponse(responseCode = "400", description = "Bad Request - Unsupported granularity",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"errors\": {\n    \"granularity\": \"Granularity must be 'day', 'week' or 'month'.\"\n  }\n}")))
+    })
+    @GetMapping("/summary")
+    @SecurityRequirement(name = "token")
+    public ResponseEntity<?> getActivitySummary(@Parameter(hidden = true) @RequestHeader("Authorization") String authorizationHeader,
+                                                @Parameter(description = "Period used to group the totals: 'day' (default), 'week' or 'month'.") @RequestParam(defaultValue = "day") String granularity,
+                                                @Parameter(description = "First day to include.", example = "2024-01-01") @RequestParam(required = false) LocalDate startDate,
+                                                @Parameter(description = "Last day to include. Defaults to today.", example = "2024-12-31") @RequestParam(required = false) LocalDate endDate,
+                                                @Parameter(description = "Only include this sport.", example = "RUNNING") @RequestParam(required = false) SportType sport) {
+        TokenDTO tokenDTO = new TokenDTO(authorizationHeader);
+        ResponseWrapper response = dailyActivityService.getSummary(tokenDTO, granularity, startDate, endDate, sport);
+        return response.toResponseEntity();
+    }
+
+    @Operation(summary = "Export user training sessions", description = "Streams all training sessions of the user in chronological order, as NDJSON (one JSON object per line) or CSV. Rows are written as they are read, so large histories can be exported without loading them in memory.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sessions exported successfully",
+            content = {
+                @Content(mediaType = "application/x-ndjson", examples = @ExampleObject(value = "{\"id\":\"f8ebbff6-c133-476e-86b5-ed0af7056c0d\",\"title\":\"Morning Run\",\"sport\":\"RUNNING\",\"distance\":5.0,\"startDate\":\"2024-12-11\",\"startTime\":\"06:30\",\"duration\":30.0}\n{\"id\":\"f8ebbff6-c133-476e-86b5-ed0af7056c0e\",\"title\":\"Evening Walk\",\"sport\":\"CICLISMO\",\"distance\":3.0,\"startDate\":\"2024-12-11\",\"startTime\":\"18:00\",\"duration\":45.0}")),
+                @Content(mediaType = "text/csv", examples = @ExampleObject(value = "id,title,sport,distance,startDate,startTime,duration\nf8ebbff6-c133-476e-86b5-ed0af7056c0d,Morning Run,RUNNING,5.0,2024-12-11,06:30,30.0"))
+            }),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid token",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"error\": \"Invalid token.\"\n}"))),
+        @ApiResponse(responseCode = "400", description = "Bad Request - Unsupported format",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"errors\": {\n    \"format\": \"Format must be 'ndjson' or 'csv'.\"\n  }\n}")))
+    })
+    @GetMapping("/export")
+    @SecurityRequirement(name = "token")
+    public ResponseEntity<StreamingResponseBody> exportSessions(@Parameter(hidden = true) @RequestHeader("Authorization") String authorizationHeader,
+                                            @Parameter(description = "Export format: 'ndjson' (default) or 'csv'.") @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        TokenDTO tokenDTO = new TokenDTO(authorizationHeader);
+        StreamingResponseBody body = trainingSessionService.exportSessions(tokenDTO, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sessions." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @Operation(summary = "Delete a training session", description = "Deletes an existing training session for a user.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Session deleted successfully",
@@ -1,5 +1,7 @@
 package com.strava.facade;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -23,6 +25,7 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 
 @RestController
@@ -54,9 +57,8 @@ public class UserController {
             content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"error\": \"Error communicating with authentication provider for email validation.\"\n}")))
     })
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@RequestBody @Valid RegistrationDTO user) {
-        var response = userService.registerUser(user);
-        return response.toResponseEntity();
+    public CompletableFuture<ResponseEntity<Object>> registerUser(@RequestBody @Valid RegistrationDTO user) {
+        return userService.registerUser(user).thenApply(ResponseWrapper::toResponseEntity);
     }
 
     @Operation(
@@ -116,6 +118,7 @@ public class UserController {
             content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"error\": \"Unexpected error during retrieval.\"\n}")))
     })
     @GetMapping("/info")
+    @Transactional
     @SecurityRequirement(name = "token")
     public ResponseEntity<?> getUserInfo(@Parameter(hidden = true) @RequestHeader("Authorization") String authorizationHeader) {
         TokenDTO tokenDTO = new TokenDTO(authorizationHeader);
@@ -138,6 +141,7 @@ public class UserController {
             content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\n  \"error\": \"Unexpected error during update.\"\n}")))
     })
     @PatchMapping("/info")
+    @Transactional
     @SecurityRequirement(name = "token")
     public ResponseEntity<?> updateUserPhysicalInfo(@Parameter(hidden = true) @RequestHeader("Authorization") String authorizationHeader, @RequestBody @Valid UserPhysicalInfoDTO userPhysicalInfoDTO) {
         TokenDTO tokenDTO = new TokenDTO(authorizationHeader);
@@ -0,0 +1,33 @@
+package com.strava.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Reconstruye la tabla challenge_progress al arrancar con --rebuild-challenge-progress,
+// o automáticamente si la tabla está vacía pero ya existen participaciones en retos
+@Component
+public class ChallengeProgressRebuildRunner implements ApplicationRunner {
+
+    private static final String REBUILD_OPTION = "rebuild-challenge-progress";
+    private static final Logger logger = LoggerFactory.getLogger(ChallengeProgressRebuildRunner.class);
+
+    private final ChallengeProgressService challengeProgressService;
+
+    public ChallengeProgressRebuildRunner(ChallengeProgressService challengeProgressService) {
+        this.challengeProgressService = challengeProgressService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REBUILD_OPTION)) {
+            logger.info("Rebuilding challenge progress as requested by --{}", REBUILD_OPTION);
+            challengeProgressService.rebuild();
+        } else if (challengeProgressService.needsRebuild()) {
+            logger.info("Challenge progress table is empty, rebuilding it from training sessions");
+            challengeProgressService.rebuild();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.strava.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.strava.dao.ChallengeDAO;
+import com.strava.dao.ChallengeProgressDAO;
+import com.strava.dao.UserDAO;
+import com.strava.entity.Challenge;
+import com.strava.entity.TrainingSession;
+import com.strava.entity.User;
+import com.strava.entity.enumeration.ObjectiveType;
+import com.strava.entity.enumeration.SportType;
+import com.strava.entity.generator.UuidV7Generator;
+
+import jakarta.transaction.Transactional;
+
+@Service
+public class ChallengeProgressService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChallengeProgressService.class);
+
+    private final ChallengeProgressDAO challengeProgressDAO;
+    private final ChallengeDAO challengeDAO;
+    private final UserDAO userDAO;
+    private final LeaderboardService leaderboardService;
+
+    public ChallengeProgressService(ChallengeProgressDAO challengeProgressDAO, ChallengeDAO challengeDAO,
+                                    UserDAO userDAO,
+                                    LeaderboardService leaderboardService) {
+        this.challengeProgressDAO = challengeProgressDAO;
+        this.challengeDAO = challengeDAO;
+        this.userDAO = userDAO;
+        this.leaderboardService = leaderboardService;
+    }
+
+    // Sumar la aportación de una sesión nueva al progreso de los retos afectados
+    public void addSession(TrainingSession session) {
+        applySession(session, 1);
+    }
+
+    // Restar la aportación de una sesión (borrada o antes de ser editada)
+    public void removeSession(TrainingSession session) {
+        applySession(session, -1);
+    }
+
+    // Sumar la aportación de un grupo de sesiones nuevas (importación por lotes). Las sesiones se agrupan por
+    // usuario, deporte y fecha, de forma que se lanza una actualización por grupo y no dos por sesión
+    public void addSessions(Collection<TrainingSession> sessions) {
+        List<DailySessionTotals> groups = DailySessionTotals.of(sessions);
+        lockUsers(groups.stream().map(DailySessionTotals::userId).toList());
+        for (DailySessionTotals group : groups) {
+            challengeProgressDAO.addToProgress(group.userId(), group.sport(), ObjectiveType.DISTANCIA, group.date(), group.distance());
+            challengeProgressDAO.addToProgress(group.userId(), group.sport(), ObjectiveType.TIEMPO, group.date(), group.duration());
+        }
+        leaderboardService.onSessionsApplied(groups, 1);
+    }
+
+    private void applySession(TrainingSession session, int sign) {
+        UUID userId = session.getUser().getId();
+        SportType sport = session.getSport();
+        LocalDate date = session.getStartDate();
+
+        lockUsers(List.of(userId));
+        challengeProgressDAO.addToProgress(userId, sport, ObjectiveType.DISTANCIA, date, sign * session.getDistance());
+        challengeProgressDAO.addToProgress(userId, sport, ObjectiveType.TIEMPO, date, sign * session.getDuration());
+        leaderboardService.onSessionsApplied(DailySessionTotals.of(List.of(session)), sign);
+    }
+
+    // Crear la fila de progreso de un usuario que se une a un reto, partiendo de las sesiones que ya tiene.
+    // Con el usuario bloqueado, una sesión que se guarde a la vez o bien ya está confirmada y entra en la suma,
+    // o bien espera al bloqueo y su actualización encuentra la fila ya creada: nunca se pierde su aportación
+    public void initializeProgress(User user, Challenge challenge) {
+        lockUsers(List.of(user.getId()));
+        challengeProgressDAO.insertFromSessions(UuidV7Generator.next(), user.getId(), challenge.getId(),
+            challenge.getObjectiveType().name(), challenge.getSport().name(), challenge.getStartDate(), challenge.getEndDate());
+
+        Double accumulatedValue = challengeProgressDAO.findAccumulatedValue(user.getId(), challenge.getId());
+        leaderboardService.onParticipantAdded(challenge, user, accumulatedValue != null ? accumulatedValue : 0);
+    }
+
+    // Bloquear los usuarios en orden de id, para que dos transacciones con varios usuarios no se bloqueen mutuamente.
+    // UUID.compareTo compara con signo; el texto sigue el mismo orden que la base de datos (ORDER BY id en lockAll)
+    private void lockUsers(Collection<UUID> userIds) {
+        Set<UUID> ordered = new TreeSet<>(Comparator.comparing(UUID::toString));
+        ordered.addAll(userIds);
+        for (UUID userId : ordered) {
+            userDAO.lockById(userId);
+        }
+    }
+
+    // Valor acumulado de un usuario en cada uno de sus retos (id del reto -> valor)
+    public Map<UUID, Double> getAccumulatedValuesByUser(UUID userId) {
+        return challengeProgressDAO.findValuesByUserId(userId).stream()
+                .collect(Collectors.toMap(ChallengeProgressDAO.ProgressValue::getChallengeId,
+                                          ChallengeProgressDAO.ProgressValue::getAccumulatedValue));
+    }
+
+    // Valor acumulado de cada participante de un reto (id del usuario -> valor)
+    public Map<UUID, Double> getAccumulatedValuesByChallenge(UUID challengeId) {
+        return challengeProgressDAO.findValuesByChallengeId(challengeId).stream()
+                .collect(Collectors.toMap(ChallengeProgressDAO.ProgressValue::getUserId,
+                                          ChallengeProgressDAO.ProgressValue::getAccumulatedValue));
+    }
+
+    // Recalcular toda la tabla de progreso a partir de las sesiones (por ejemplo, tras una importación masiva).
+    // Se bloquea antes a todos los usuarios: las sesiones en curso terminan antes y entran en la suma, y las que
+    // lleguen después esperan a que la tabla esté reconstruida, así que ninguna aportación se pierde entre el borrado
+    // y la inserción
+    @Transactional
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        userDAO.lockAll();
+        challengeProgressDAO.deleteAllInBatch();
+        int rows = challengeProgressDAO.insertAllFromSessions();
+
+        leaderboardService.invalidateAll();
+        logger.info("Challenge progress rebuilt: {} rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    // Indica si la tabla de progreso está vacía aunque existan participaciones en retos
+    public boolean needsRebuild() {
+        return challengeProgressDAO.count() == 0 && challengeDAO.countParticipations() > 0;
+    }
+}
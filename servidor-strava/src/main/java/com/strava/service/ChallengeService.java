@@ -9,20 +9,17 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import com.strava.dao.ChallengeDAO;
-import com.strava.dao.TrainingSessionDAO;
 import com.strava.dto.ChallengeDTO;
 import com.strava.dto.FilterDTO;
+import com.strava.dto.PageCursor;
 import com.strava.dto.ResponseWrapper;
 import com.strava.dto.TokenDTO;
 import com.strava.dto.UserProgressDTO;
 import com.strava.entity.Challenge;
-import com.strava.entity.TrainingSession;
 import com.strava.entity.User;
 import com.strava.entity.enumeration.SportType;
 
@@ -31,14 +28,14 @@ public class ChallengeService {
 
     private final UserService userService;
     private final ChallengeDAO challengeDAO;
-    private final TrainingSessionDAO trainingSessionDAO;
     private final TokenService tokenService;
+    private final ChallengeProgressService challengeProgressService;
 
-    public ChallengeService(UserService userService, ChallengeDAO challengeDAO, TrainingSessionDAO trainingSessionDAO, TokenService tokenService) {
+    public ChallengeService(UserService userService, ChallengeDAO challengeDAO, TokenService tokenService, ChallengeProgressService challengeProgressService) {
         this.userService = userService;
         this.challengeDAO = challengeDAO;
-        this.trainingSessionDAO = trainingSessionDAO;
         this.tokenService = tokenService;
+        this.challengeProgressService = challengeProgressService;
     }
 
     // Crear un reto y almacenarlo en la base de datos
@@ -49,11 +46,16 @@ public class ChallengeService {
         // Crear un nuevo objeto Challenge a partir del DTO
         Challenge challenge = new Challenge(challengeDTO);
         user.addCreatedChallenge(challenge); // Asociar el usuario al reto como creador
-        challenge.addUser(user); // Asociar el usuario al reto como particpante
 
         // Guardar el reto en la base de datos
         challengeDAO.save(challenge);
 
+        // Inscribir al creador como participante sin cargar los retos en los que ya participa
+        challengeDAO.addParticipant(challenge.getId(), user.getId());
+
+        // Inicializar el progreso del creador, que participa en el reto
+        challengeProgressService.initializeProgress(user, challenge);
+
         return new ResponseWrapper(200, "challenge-id", challenge.getId());
     }
 
@@ -62,24 +64,40 @@ public class ChallengeService {
         LocalDate endDate = challengeFilterDTO.getEndDate();
         SportType sport = challengeFilterDTO.getSport();
         
-        // Establecer un límite por defecto de 5 si el valor de limit es null
-        if (challengeFilterDTO.getLimit() == null) {
-            challengeFilterDTO.setLimit(Integer.MAX_VALUE);
-        }
+        // Sin límite se devuelven todos los retos; con límite, se pide uno más para saber si hay página siguiente
+        Integer limit = challengeFilterDTO.getLimit();
+        PageCursor cursor = PageCursor.decode(challengeFilterDTO.getCursor());
     
-        Pageable pageable = PageRequest.of(0, challengeFilterDTO.getLimit());
-    
-        // Consultar los retos filtrados desde la base de datos
-        Page<Challenge> challengesPage = challengeDAO.findFilteredChallenges(
-                null, startDate, endDate, sport, pageable
+        // Consultar los retos filtrados desde la base de datos a partir del cursor
+        List<Challenge> challengeList = challengeDAO.findFilteredChallenges(
+                null, startDate, endDate, sport,
+                cursor != null ? cursor.getStartDate() : null,
+                cursor != null ? cursor.getId() : null,
+                limit != null ? Limit.of(Math.min(limit, Integer.MAX_VALUE - 1) + 1) : Limit.unlimited()
         );
+
+        String nextCursor = null;
+        if (limit != null && challengeList.size() > limit) {
+            challengeList = challengeList.subList(0, limit);
+            Challenge last = challengeList.get(limit - 1);
+            nextCursor = new PageCursor(last.getStartDate(), last.getId()).encode();
+        }
     
         // Convertir las entidades de Challenge a DTOs
-        List<ChallengeDTO> challenges = challengesPage.getContent().stream()
+        List<ChallengeDTO> challenges = challengeList.stream()
                 .map(challenge -> new ChallengeDTO(challenge))
                 .collect(Collectors.toList());
 
-        return new ResponseWrapper(200, "challenges", challenges);
+        Map<String, Object> data = new HashMap<>();
+        data.put("challenges", challenges);
+        if (nextCursor != null) {
+            data.put("next-cursor", nextCursor);
+        }
+        // El total solo se calcula si se pide, ya que supone una segunda consulta
+        if (Boolean.TRUE.equals(challengeFilterDTO.getIncludeTotal())) {
+            data.put("total", challengeDAO.countFilteredChallenges(null, startDate, endDate, sport));
+        }
+        return new ResponseWrapper(200, data);
     }    
 
     // Aceptar un reto y asociarlo al usuario
@@ -103,16 +121,14 @@ public class ChallengeService {
             return new ResponseWrapper(400, "errors", errorDetails);
         }
 
-        // Verificar si el usuario ya ha aceptado el reto
-        if (challenge.getUsers().contains(user)) {
+        // Asociar el usuario al reto insertando directamente en user_challenges, sin cargar los participantes.
+        // Si no se inserta ninguna fila es que el usuario ya había aceptado el reto
+        if (challengeDAO.addParticipant(challengeId, user.getId()) == 0) {
             return new ResponseWrapper(409, "error", "Challenge already accepted.");
         }
 
-        // Asociación del reto y el usuario
-        challenge.addUser(user);
-
-        // Guardar los cambios en la base de datos
-        challengeDAO.save(challenge);
+        // Inicializar el progreso del usuario con las sesiones que ya tiene dentro del reto
+        challengeProgressService.initializeProgress(user, challenge);
 
         return new ResponseWrapper(200, "message", "Challenge accepted.");
     }
@@ -122,17 +138,21 @@ public class ChallengeService {
         User user = tokenService.getUserFromToken(tokenDTO);
 
         // Consultar los retos aceptados desde la base de datos
-        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);  // Recuperamos todos los retos sin paginación
-        Page<Challenge> challengesPage = challengeDAO.findFilteredChallenges(
-                user.getId(), null, null, null, pageable
+        List<Challenge> acceptedChallenges = challengeDAO.findFilteredChallenges(
+                user.getId(), null, null, null, null, null, Limit.unlimited()  // Recuperamos todos los retos sin paginación
         );
 
+        // Obtener el progreso acumulado del usuario en todos sus retos con una única consulta
+        Map<UUID, Double> accumulatedByChallenge = includeProgress
+                ? challengeProgressService.getAccumulatedValuesByUser(user.getId())
+                : Map.of();
+
         // Convertir las entidades de Challenge a DTOs y calcular el progreso si es necesario
-        List<ChallengeDTO> challenges = challengesPage.getContent().stream()
+        List<ChallengeDTO> challenges = acceptedChallenges.stream()
                 .map(challenge -> {
                     ChallengeDTO challengeDTO = new ChallengeDTO(challenge);
                     if (includeProgress) {
-                        double progress = calculateProgress(user, challenge);
+                        double progress = toProgress(accumulatedByChallenge.getOrDefault(challenge.getId(), 0.0), challenge);
                         challengeDTO.setProgress(progress);
                     }
                     return challengeDTO;
@@ -151,11 +171,14 @@ public class ChallengeService {
             return new ResponseWrapper(404, "error", "Challenge not found.");
         }
 
+        // Obtener el progreso acumulado de todos los participantes con una única consulta
+        Map<UUID, Double> accumulatedByUser = challengeProgressService.getAccumulatedValuesByChallenge(challengeId);
+
         // Obtener los usuarios participantes y sus progresos
         List<UserProgressDTO> userProgressList = challenge.getUsers().stream()
             .map(user -> {
-                double progress = calculateProgress(user, challenge);
-                return new UserProgressDTO(user.getId(), user.getName(), progress);
+                double totalValue = accumulatedByUser.getOrDefault(user.getId(), 0.0);
+                return new UserProgressDTO(user.getId(), user.getName(), toProgress(totalValue, challenge));
             })
             .collect(Collectors.toList());
 
@@ -197,34 +220,20 @@ public class ChallengeService {
             return new ResponseWrapper(404, "error", "User not found.");
         }
 
-        Challenge challenge = challengeDAO.findById(challengeId).orElse(null);
-        if (challenge == null) {
+        if (!challengeDAO.existsById(challengeId)) {
             return new ResponseWrapper(404, "error", "Challenge not found.");
         }
 
-        boolean isAccepted = challenge.getUsers().contains(user);
+        boolean isAccepted = challengeDAO.isParticipant(challengeId, userId);
         return new ResponseWrapper(200, "isAccepted", isAccepted);
     }
 
-    private double calculateProgress(User user, Challenge challenge) {
-        // Obtener sesiones de entrenamiento del usuario dentro del rango de fechas del reto
-        Pageable pageable = Pageable.unpaged(); // Sin límite de sesiones
-        Page<TrainingSession> sessionPage = trainingSessionDAO.findFilteredSessions(
-            user.getId(), challenge.getStartDate(), challenge.getEndDate(), challenge.getSport(), pageable
-        );
-        List<TrainingSession> sessions = sessionPage.getContent();
-
-        // Calcular el progreso basado en el tipo de objetivo
-        double totalValue = sessions.stream()
-            .mapToDouble(session -> switch (challenge.getObjectiveType()) {
-                case DISTANCIA -> session.getDistance();
-                case TIEMPO -> session.getDuration();
-                default -> 0;
-            })
-            .sum();
-
-        double objectiveValue = challenge.getObjectiveValue();
+    // Convertir el valor acumulado en porcentaje de progreso respecto al objetivo
+    private double toProgress(double totalValue, Challenge challenge) {
+        return toProgress(totalValue, challenge.getObjectiveValue());
+    }
 
+    static double toProgress(double totalValue, double objectiveValue) {
         double progress = (totalValue / objectiveValue) * 100;
         return BigDecimal.valueOf(progress).setScale(2, RoundingMode.HALF_UP).doubleValue();
     }
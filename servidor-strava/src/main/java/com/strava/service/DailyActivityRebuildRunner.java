@@ -0,0 +1,33 @@
+package com.strava.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Reconstruye la tabla daily_activity al arrancar con --rebuild-daily-activity,
+// o automáticamente si la tabla está vacía pero ya existen sesiones de entrenamiento
+@Component
+public class DailyActivityRebuildRunner implements ApplicationRunner {
+
+    private static final String REBUILD_OPTION = "rebuild-daily-activity";
+    private static final Logger logger = LoggerFactory.getLogger(DailyActivityRebuildRunner.class);
+
+    private final DailyActivityService dailyActivityService;
+
+    public DailyActivityRebuildRunner(DailyActivityService dailyActivityService) {
+        this.dailyActivityService = dailyActivityService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REBUILD_OPTION)) {
+            logger.info("Rebuilding daily activity as requested by --{}", REBUILD_OPTION);
+            dailyActivityService.rebuild();
+        } else if (dailyActivityService.needsRebuild()) {
+            logger.info("Daily activity table is empty, rebuilding it from training sessions");
+            dailyActivityService.rebuild();
+        }
+    }
+}
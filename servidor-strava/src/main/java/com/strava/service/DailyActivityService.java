@@ -0,0 +1,113 @@
+package com.strava.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.strava.dao.DailyActivityDAO;
+import com.strava.dao.TrainingSessionDAO;
+import com.strava.dto.ActivitySummaryDTO;
+import com.strava.dto.ResponseWrapper;
+import com.strava.dto.SummaryGranularity;
+import com.strava.dto.TokenDTO;
+import com.strava.entity.DailyActivity;
+import com.strava.entity.TrainingSession;
+import com.strava.entity.User;
+import com.strava.entity.enumeration.SportType;
+import com.strava.entity.generator.UuidV7Generator;
+
+import jakarta.transaction.Transactional;
+
+@Service
+public class DailyActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyActivityService.class);
+
+    private final DailyActivityDAO dailyActivityDAO;
+    private final TrainingSessionDAO trainingSessionDAO;
+    private final TokenService tokenService;
+
+    public DailyActivityService(DailyActivityDAO dailyActivityDAO, TrainingSessionDAO trainingSessionDAO, TokenService tokenService) {
+        this.dailyActivityDAO = dailyActivityDAO;
+        this.trainingSessionDAO = trainingSessionDAO;
+        this.tokenService = tokenService;
+    }
+
+    // Sumar una sesión nueva al resumen de su día
+    public void addSession(TrainingSession session) {
+        addToDay(session.getUser().getId(), session.getSport(), session.getStartDate(),
+                 session.getDistance(), session.getDuration(), 1);
+    }
+
+    // Sumar un grupo de sesiones nuevas (importación por lotes) con una sentencia por usuario, deporte y día
+    public void addSessions(Collection<TrainingSession> sessions) {
+        for (DailySessionTotals group : DailySessionTotals.of(sessions)) {
+            addToDay(group.userId(), group.sport(), group.date(), group.distance(), group.duration(), group.count());
+        }
+    }
+
+    // Restar una sesión (borrada o antes de ser editada) y eliminar el resumen si el día queda sin sesiones
+    public void removeSession(TrainingSession session) {
+        UUID userId = session.getUser().getId();
+        addToDay(userId, session.getSport(), session.getStartDate(), -session.getDistance(), -session.getDuration(), -1);
+        dailyActivityDAO.deleteIfEmpty(userId, session.getStartDate(), session.getSport());
+    }
+
+    private void addToDay(UUID userId, SportType sport, LocalDate date, double distance, double duration, int count) {
+        dailyActivityDAO.addToDay(UuidV7Generator.next(), userId, date, sport.name(), distance, duration, count);
+    }
+
+    // Totales de actividad del usuario agrupados por periodo (día, semana o mes) y deporte
+    public ResponseWrapper getSummary(TokenDTO tokenDTO, String granularityName, LocalDate startDate, LocalDate endDate, SportType sport) {
+        // Validar token y obtener el usuario
+        User user = tokenService.getUserFromToken(tokenDTO);
+
+        SummaryGranularity granularity = SummaryGranularity.fromName(granularityName);
+        if (granularity == null) {
+            Map<String, String> errorDetails = new HashMap<>();
+            errorDetails.put("granularity", "Granularity must be 'day', 'week' or 'month'.");
+            return new ResponseWrapper(400, "errors", errorDetails);
+        }
+
+        // Por defecto, desde el principio hasta hoy
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        if (startDate == null) {
+            startDate = LocalDate.EPOCH;
+        }
+
+        // Los resúmenes diarios ya vienen ordenados por fecha, así que los periodos se generan en orden
+        Map<String, ActivitySummaryDTO> periods = new LinkedHashMap<>();
+        for (DailyActivity day : dailyActivityDAO.findByUserIdAndDateRange(user.getId(), startDate, endDate, sport)) {
+            LocalDate period = granularity.periodStart(day.getActivityDate());
+            periods.computeIfAbsent(period + "|" + day.getSport(), key -> new ActivitySummaryDTO(period, day.getSport()))
+                   .add(day.getTotalDistance(), day.getTotalDuration(), day.getSessionCount());
+        }
+
+        return new ResponseWrapper(200, "summary", new ArrayList<>(periods.values()));
+    }
+
+    // Recalcular todos los resúmenes a partir de las sesiones (por ejemplo, tras una importación masiva)
+    @Transactional
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        dailyActivityDAO.deleteAllInBatch();
+        int rows = dailyActivityDAO.insertFromSessions();
+        logger.info("Daily activity rebuilt: {} rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    // Indica si la tabla de resúmenes está vacía aunque existan sesiones
+    public boolean needsRebuild() {
+        return dailyActivityDAO.count() == 0 && trainingSessionDAO.count() > 0;
+    }
+}
@@ -0,0 +1,36 @@
+package com.strava.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.strava.entity.TrainingSession;
+import com.strava.entity.enumeration.SportType;
+
+// Totales de un grupo de sesiones del mismo usuario, deporte y día. Permite aplicar un lote de sesiones
+// con una actualización por grupo en lugar de una por sesión
+record DailySessionTotals(UUID userId, SportType sport, LocalDate date, double distance, double duration, int count) {
+
+    static List<DailySessionTotals> of(Collection<TrainingSession> sessions) {
+        Map<Key, double[]> totals = new LinkedHashMap<>();
+        for (TrainingSession session : sessions) {
+            Key key = new Key(session.getUser().getId(), session.getSport(), session.getStartDate());
+            double[] groupTotals = totals.computeIfAbsent(key, k -> new double[3]);
+            groupTotals[0] += session.getDistance();
+            groupTotals[1] += session.getDuration();
+            groupTotals[2]++;
+        }
+
+        List<DailySessionTotals> groups = new ArrayList<>(totals.size());
+        totals.forEach((key, groupTotals) -> groups.add(new DailySessionTotals(
+            key.userId(), key.sport(), key.date(), groupTotals[0], groupTotals[1], (int) groupTotals[2]
+        )));
+        return groups;
+    }
+
+    private record Key(UUID userId, SportType sport, LocalDate date) {}
+}
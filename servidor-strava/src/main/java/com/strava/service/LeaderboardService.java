@@ -0,0 +1,251 @@
+package com.strava.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.strava.cache.ChallengeLeaderboard;
+import com.strava.dao.ChallengeDAO;
+import com.strava.dao.ChallengeProgressDAO;
+import com.strava.dto.LeaderboardEntryDTO;
+import com.strava.dto.ResponseWrapper;
+import com.strava.entity.Challenge;
+import com.strava.entity.User;
+import com.strava.entity.enumeration.ObjectiveType;
+
+// Clasificaciones de los retos mantenidas en memoria. Cada una se carga de challenge_progress la primera vez
+// que se consulta y después se actualiza con cada sesión confirmada, sin volver a ordenar a los participantes.
+// Solo se guardan las maxSize clasificaciones usadas más recientemente
+@Service
+public class LeaderboardService {
+
+    private static final int MAX_TOP = 100;
+
+    private final ChallengeDAO challengeDAO;
+    private final ChallengeProgressDAO challengeProgressDAO;
+    private final long refreshMillis;
+    private final int maxSize;
+
+    // Mapa LRU (ordenado por acceso) de reto -> clasificación, acotado a maxSize entradas
+    private final LinkedHashMap<UUID, ChallengeLeaderboard> leaderboards;
+
+    // Cargas en curso y transacciones con cambios que han empezado a confirmarse pero aún no se han aplicado.
+    // Con ellas se detecta si un cambio pudo quedar a medias respecto a la lectura de una carga
+    private final Set<PendingLoad> pendingLoads = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger committing = new AtomicInteger();
+
+    public LeaderboardService(ChallengeDAO challengeDAO, ChallengeProgressDAO challengeProgressDAO,
+                              @Value("${strava.leaderboard.refresh-seconds:300}") long refreshSeconds,
+                              @Value("${strava.leaderboard.max-size:1000}") int maxSize) {
+        this.challengeDAO = challengeDAO;
+        this.challengeProgressDAO = challengeProgressDAO;
+        this.refreshMillis = refreshSeconds * 1000;
+        this.maxSize = maxSize;
+        this.leaderboards = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, ChallengeLeaderboard> eldest) {
+                return size() > LeaderboardService.this.maxSize;
+            }
+        };
+    }
+
+    public ResponseWrapper getLeaderboard(UUID challengeId, int top, UUID aroundUserId) {
+        if (top < 1 || top > MAX_TOP) {
+            Map<String, String> errorDetails = new HashMap<>();
+            errorDetails.put("top", "Top must be between 1 and " + MAX_TOP + ".");
+            return new ResponseWrapper(400, "errors", errorDetails);
+        }
+
+        ChallengeLeaderboard leaderboard = getOrLoad(challengeId);
+        if (leaderboard == null) {
+            return new ResponseWrapper(404, "error", "Challenge not found.");
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("participants", leaderboard.size());
+        data.put("leaderboard", toDTOs(leaderboard.top(top), leaderboard));
+
+        if (aroundUserId != null) {
+            List<ChallengeLeaderboard.RankedParticipant> around = leaderboard.around(aroundUserId, top);
+            if (around.isEmpty()) {
+                return new ResponseWrapper(404, "error", "User is not participating in this challenge.");
+            }
+            data.put("around", toDTOs(around, leaderboard));
+        }
+
+        return new ResponseWrapper(200, data);
+    }
+
+    // Aplicar a las clasificaciones cargadas los totales de unas sesiones añadidas (sign = 1) o quitadas (sign = -1)
+    void onSessionsApplied(Collection<DailySessionTotals> groups, int sign) {
+        afterCommit(() -> {
+            markPendingLoadsDirty();
+            for (ChallengeLeaderboard leaderboard : loadedLeaderboards()) {
+                for (DailySessionTotals group : groups) {
+                    if (leaderboard.covers(group.sport(), group.date())) {
+                        double value = leaderboard.getObjectiveType() == ObjectiveType.DISTANCIA ? group.distance() : group.duration();
+                        leaderboard.add(group.userId(), sign * value);
+                    }
+                }
+            }
+        });
+    }
+
+    // Añadir un nuevo participante a la clasificación del reto, si está cargada
+    void onParticipantAdded(Challenge challenge, User user, double accumulatedValue) {
+        UUID userId = user.getId();
+        String userName = user.getName();
+        afterCommit(() -> {
+            markPendingLoadsDirty();
+            ChallengeLeaderboard leaderboard;
+            synchronized (leaderboards) {
+                leaderboard = leaderboards.get(challenge.getId());
+            }
+            if (leaderboard != null) {
+                leaderboard.put(userId, userName, accumulatedValue);
+            }
+        });
+    }
+
+    // Descartar todas las clasificaciones (por ejemplo, tras reconstruir challenge_progress)
+    void invalidateAll() {
+        afterCommit(() -> {
+            markPendingLoadsDirty();
+            synchronized (leaderboards) {
+                leaderboards.clear();
+            }
+        });
+    }
+
+    // Cargar la clasificación si no está en memoria, si ha pasado el tiempo de refresco o si se marcó como desfasada.
+    // La carga se hace fuera de cualquier bloqueo; mientras un hilo recarga una clasificación, los demás usan la anterior
+    private ChallengeLeaderboard getOrLoad(UUID challengeId) {
+        ChallengeLeaderboard current;
+        synchronized (leaderboards) {
+            current = leaderboards.get(challengeId);
+        }
+        if (current != null && (!current.needsRefresh(refreshMillis) || !current.tryStartRefresh())) {
+            return current;
+        }
+
+        PendingLoad pending = new PendingLoad();
+        pendingLoads.add(pending);
+        ChallengeLeaderboard installed;
+        try {
+            ChallengeLeaderboard fresh = load(challengeId);
+            // Una transacción que se estaba confirmando puede estar ya en la lectura y aplicarse otra vez al instalarla
+            if (committing.get() > 0) {
+                pending.dirty = true;
+            }
+            installed = install(challengeId, current, fresh);
+        } finally {
+            pendingLoads.remove(pending);
+            if (current != null) {
+                current.endRefresh();
+            }
+        }
+
+        // Algún cambio confirmado durante la carga pudo perderse o contarse dos veces: se recargará en la próxima consulta
+        if (pending.dirty && installed != null) {
+            installed.markStale();
+        }
+        return installed;
+    }
+
+    // Instalar la clasificación cargada salvo que otro hilo haya instalado otra entretanto, que se conserva
+    private ChallengeLeaderboard install(UUID challengeId, ChallengeLeaderboard current, ChallengeLeaderboard fresh) {
+        synchronized (leaderboards) {
+            ChallengeLeaderboard existing = leaderboards.get(challengeId);
+            if (existing != null && existing != current) {
+                return existing;
+            }
+            if (fresh == null) {
+                leaderboards.remove(challengeId);
+            } else {
+                leaderboards.put(challengeId, fresh);
+            }
+            return fresh;
+        }
+    }
+
+    private List<ChallengeLeaderboard> loadedLeaderboards() {
+        synchronized (leaderboards) {
+            return new ArrayList<>(leaderboards.values());
+        }
+    }
+
+    private void markPendingLoadsDirty() {
+        for (PendingLoad pending : pendingLoads) {
+            pending.dirty = true;
+        }
+    }
+
+    private ChallengeLeaderboard load(UUID challengeId) {
+        Challenge challenge = challengeDAO.findById(challengeId).orElse(null);
+        if (challenge == null) {
+            return null;
+        }
+
+        ChallengeLeaderboard leaderboard = new ChallengeLeaderboard(challenge);
+        for (ChallengeProgressDAO.RankingValue ranking : challengeProgressDAO.findRankingByChallengeId(challengeId)) {
+            leaderboard.put(ranking.getUserId(), ranking.getUserName(), ranking.getAccumulatedValue());
+        }
+        return leaderboard;
+    }
+
+    private List<LeaderboardEntryDTO> toDTOs(List<ChallengeLeaderboard.RankedParticipant> participants, ChallengeLeaderboard leaderboard) {
+        return participants.stream()
+                .map(participant -> new LeaderboardEntryDTO(participant.rank(), participant.userId(), participant.userName(),
+                        ChallengeService.toProgress(participant.value(), leaderboard.getObjectiveValue())))
+                .collect(Collectors.toList());
+    }
+
+    // Las clasificaciones solo reflejan cambios confirmados: si hay transacción, se espera a que termine bien.
+    // Desde antes de confirmar hasta que el cambio se ha aplicado, la transacción cuenta en committing
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean counted = false;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing.incrementAndGet();
+                counted = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (counted) {
+                    committing.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private static class PendingLoad {
+        private volatile boolean dirty = false;
+    }
+}
@@ -0,0 +1,64 @@
+package com.strava.service;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.springframework.stereotype.Component;
+
+// Generador de tokens aleatorios de 256 bits. Cada hilo tiene su propio SecureRandom (DRBG, que no comparte
+// ningún bloqueo global entre instancias) y un buffer de bytes que rellena de una vez, así que los logins
+// concurrentes no compiten por un generador común. Los hilos de petición de Tomcat se reutilizan, por lo que
+// solo se crea un generador por hilo del pool
+@Component
+public class SecureTokenGenerator {
+
+    private static final int TOKEN_LENGTH = 32;
+    private static final int BUFFER_LENGTH = TOKEN_LENGTH * 16;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final ThreadLocal<RandomBuffer> buffers = ThreadLocal.withInitial(RandomBuffer::new);
+
+    // Token opaco en Base64 URL (43 caracteres, sin puntos, por lo que nunca se confunde con un token firmado)
+    public String nextToken() {
+        byte[] bytes = new byte[TOKEN_LENGTH];
+        nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    public void nextBytes(byte[] bytes) {
+        buffers.get().fill(bytes);
+    }
+
+    private static class RandomBuffer {
+        private final SecureRandom random = newSecureRandom();
+        private final byte[] buffer = new byte[BUFFER_LENGTH];
+        private int position = BUFFER_LENGTH;
+
+        void fill(byte[] bytes) {
+            int copied = 0;
+            while (copied < bytes.length) {
+                if (position == BUFFER_LENGTH) {
+                    random.nextBytes(buffer);
+                    position = 0;
+                }
+                int length = Math.min(bytes.length - copied, BUFFER_LENGTH - position);
+                System.arraycopy(buffer, position, bytes, copied, length);
+                // Los bytes entregados se borran del buffer para que no queden en memoria
+                Arrays.fill(buffer, position, position + length, (byte) 0);
+                position += length;
+                copied += length;
+            }
+        }
+
+        private static SecureRandom newSecureRandom() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
+}
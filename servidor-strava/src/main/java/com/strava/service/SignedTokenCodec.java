@@ -0,0 +1,125 @@
+package com.strava.service;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Tokens firmados sin estado: "<carga>.<firma>" en Base64 URL, donde la carga es el id del usuario, la caducidad
+// (segundos desde epoch) y 16 bytes aleatorios, y la firma un HMAC-SHA256 de la carga. Se verifican en memoria
+@Component
+public class SignedTokenCodec {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignedTokenCodec.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_LENGTH = 32;
+    private static final int NONCE_LENGTH = 16;
+    private static final int PAYLOAD_LENGTH = 16 + 8 + NONCE_LENGTH;
+    private static final int SIGNATURE_LENGTH = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final SecureTokenGenerator tokenGenerator;
+
+    // Mac no es thread-safe: una instancia por hilo
+    private final ThreadLocal<Mac> mac;
+
+    public SignedTokenCodec(SecureTokenGenerator tokenGenerator, @Value("${strava.tokens.signing-key:}") String signingKey) {
+        this.tokenGenerator = tokenGenerator;
+
+        byte[] keyBytes;
+        if (signingKey == null || signingKey.isBlank()) {
+            // Sin clave configurada los tokens firmados dejan de ser válidos al reiniciar
+            keyBytes = new byte[MIN_KEY_LENGTH];
+            new SecureRandom().nextBytes(keyBytes);
+            logger.warn("strava.tokens.signing-key is not set, signed tokens will not survive a restart");
+        } else {
+            keyBytes = Base64.getDecoder().decode(signingKey.trim());
+            if (keyBytes.length < MIN_KEY_LENGTH) {
+                throw new IllegalStateException("strava.tokens.signing-key must be at least " + MIN_KEY_LENGTH + " bytes (Base64)");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    // Indica si el token tiene el formato de un token firmado (los tokens guardados en base de datos no tienen punto)
+    public static boolean isSigned(String token) {
+        return token != null && token.indexOf('.') > 0;
+    }
+
+    public String sign(UUID userId, Instant expiresAt) {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        tokenGenerator.nextBytes(nonce);
+
+        byte[] payload = ByteBuffer.allocate(PAYLOAD_LENGTH)
+                .putLong(userId.getMostSignificantBits())
+                .putLong(userId.getLeastSignificantBits())
+                .putLong(expiresAt.getEpochSecond())
+                .put(nonce)
+                .array();
+
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(hmac(payload));
+    }
+
+    // Devuelve el contenido del token si la firma es correcta y no ha caducado en el instante dado
+    public Optional<SignedToken> verify(String token, Instant now) {
+        if (!isSigned(token)) {
+            return Optional.empty();
+        }
+
+        int separator = token.indexOf('.');
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, separator));
+            signature = DECODER.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        if (payload.length != PAYLOAD_LENGTH || signature.length != SIGNATURE_LENGTH
+                || !MessageDigest.isEqual(hmac(payload), signature)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        UUID userId = new UUID(buffer.getLong(), buffer.getLong());
+        Instant expiresAt = Instant.ofEpochSecond(buffer.getLong());
+        if (!expiresAt.isAfter(now)) {
+            return Optional.empty();
+        }
+        return Optional.of(new SignedToken(userId, expiresAt));
+    }
+
+    private byte[] hmac(byte[] payload) {
+        return mac.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + ALGORITHM, e);
+        }
+    }
+
+    public record SignedToken(UUID userId, Instant expiresAt) {}
+}
@@ -1,35 +1,163 @@
 package com.strava.service;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.strava.cache.TokenCache;
+import com.strava.cache.TokenRevocationList;
 import com.strava.dao.TokenDAO;
+import com.strava.dao.UserDAO;
 import com.strava.dto.TokenDTO;
 import com.strava.entity.User;
+import com.strava.entity.UserToken;
 import com.strava.exception.InvalidTokenException;
 
+import jakarta.annotation.PostConstruct;
+
+// Emite y valida los tokens de sesión. Con strava.tokens.mode=signed los tokens nuevos son firmados (SignedTokenCodec)
+// y se validan en memoria; en modo stored se guardan en user_tokens. Ambos formatos se aceptan siempre,
+// para que cambiar de modo no invalide las sesiones abiertas
 @Service
 public class TokenService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+
     @Autowired
     private TokenDAO tokenDAO;
 
-    // Función para generar un token único basado en el timestamp actual
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private SignedTokenCodec signedTokenCodec;
+
+    @Autowired
+    private SecureTokenGenerator tokenGenerator;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Value("${strava.tokens.ttl-seconds:2592000}")
+    private long tokenTtlSeconds;
+
+    @Value("${strava.tokens.mode:stored}")
+    private String tokenMode;
+
+    // Recuperar las revocaciones de tokens firmados que siguen vigentes (logouts anteriores al arranque)
+    @PostConstruct
+    public void loadRevokedSignedTokens() {
+        List<TokenDAO.RevokedToken> revokedTokens = tokenDAO.findRevokedSignedTokens(Instant.now());
+        for (TokenDAO.RevokedToken revokedToken : revokedTokens) {
+            if (SignedTokenCodec.isSigned(revokedToken.getToken())) {
+                revocationList.revoke(revokedToken.getToken(), revokedToken.getExpiresAt());
+            }
+        }
+        logger.info("Token mode: {}, {} revoked signed tokens loaded", tokenMode, revocationList.size());
+    }
+
+    // Token aleatorio de 256 bits: imposible de adivinar y sin colisiones entre logins simultáneos
     public String generateToken() {
-        return String.valueOf(System.currentTimeMillis());
+        return tokenGenerator.nextToken();
+    }
+
+    // Nuevo token para un usuario, válido durante strava.tokens.ttl-seconds desde ahora.
+    // Un token firmado no se guarda: el login no escribe en user_tokens
+    public String issueToken(User user) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusSeconds(tokenTtlSeconds);
+        if ("signed".equalsIgnoreCase(tokenMode)) {
+            return signedTokenCodec.sign(user.getId(), expiresAt);
+        }
+
+        UserToken userToken = new UserToken(user, generateToken(), now, expiresAt);
+        tokenDAO.save(userToken);
+        return userToken.getToken();
+    }
+
+    // Revocar un token válido (logout). Devuelve false si el token no es válido o ya estaba revocado
+    public boolean revokeToken(String token) {
+        Instant now = Instant.now();
+
+        if (SignedTokenCodec.isSigned(token)) {
+            Optional<SignedTokenCodec.SignedToken> signedToken = signedTokenCodec.verify(token, now);
+            // Solo la primera revocación del token sigue adelante, aunque lleguen dos logouts a la vez
+            if (signedToken.isEmpty() || !revocationList.revoke(token, signedToken.get().expiresAt())) {
+                return false;
+            }
+            // La columna token es única: si la revocación ya está guardada (por ejemplo, antes de un reinicio) no se repite
+            if (tokenDAO.existsByToken(token)) {
+                return false;
+            }
+
+            // La revocación se guarda hasta que el token caduca (después la borra el barrido) para recuperarla al arrancar.
+            // No se conoce el momento de emisión del token: se registra el de la revocación
+            UserToken revokedToken = new UserToken(userDAO.getReferenceById(signedToken.get().userId()), token, now,
+                                                   signedToken.get().expiresAt());
+            revokedToken.setRevoked(true);
+            tokenDAO.save(revokedToken);
+            return true;
+        }
+
+        Optional<UserToken> userToken = tokenDAO.findValidToken(token, now);
+        if (userToken.isEmpty()) {
+            return false;
+        }
+        userToken.get().revoke();
+        tokenDAO.save(userToken.get());
+        tokenCache.evict(token);
+        return true;
+    }
+
+    // Descartar de memoria las revocaciones de tokens firmados que ya han caducado
+    public int removeExpiredRevocations(Instant now) {
+        return revocationList.removeExpired(now);
+    }
+
+    public int getRevocationListSize() {
+        return revocationList.size();
+    }
+
+    public long getTokenTtlSeconds() {
+        return tokenTtlSeconds;
     }
 
     // Validar el token y obtener el usuario asociado
     public User getUserFromToken(TokenDTO tokenDTO) {
         String token = tokenDTO.getToken();
+
+        // Un token firmado se valida sin acceder a la base de datos: firma, caducidad y lista de revocados en memoria
+        if (SignedTokenCodec.isSigned(token)) {
+            Optional<SignedTokenCodec.SignedToken> signedToken = signedTokenCodec.verify(token, Instant.now());
+            if (signedToken.isEmpty() || revocationList.isRevoked(token)) {
+                throw new InvalidTokenException("Invalid or revoked token.");
+            }
+            return userDAO.getReferenceById(signedToken.get().userId());
+        }
+
+        // Si el token está en caché, devolvemos una referencia perezosa al usuario sin consultar la base de datos
+        Optional<UUID> cachedUserId = tokenCache.get(token);
+        if (cachedUserId.isPresent()) {
+            return userDAO.getReferenceById(cachedUserId.get());
+        }
     
-        Optional<User> user = tokenDAO.findUserByToken(token);
-        if (user.isEmpty()) {
+        Optional<UserToken> userToken = tokenDAO.findValidTokenWithUser(token, Instant.now());
+        if (userToken.isEmpty()) {
             throw new InvalidTokenException("Invalid or revoked token.");
         }
-    
-        return user.get();
+
+        User user = userToken.get().getUser();
+        tokenCache.put(token, user.getId(), userToken.get().getExpiresAt());
+        return user;
     }
 }
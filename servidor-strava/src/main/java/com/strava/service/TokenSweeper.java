@@ -0,0 +1,125 @@
+package com.strava.service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.strava.dao.TokenDAO;
+
+// Barrido periódico de user_tokens: borra los tokens caducados o revocados por lotes acotados,
+// cada lote en su propia transacción para no bloquear la tabla durante todo el barrido
+@Service
+public class TokenSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenSweeper.class);
+
+    private final TokenDAO tokenDAO;
+    private final TokenService tokenService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final LongAdder sweeps = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder legacyTokens = new LongAdder();
+    private final AtomicLong lastSweepMillis = new AtomicLong();
+    private final AtomicLong maxSweepMillis = new AtomicLong();
+    private final AtomicLong totalSweepMillis = new AtomicLong();
+    private final AtomicLong lastDeleted = new AtomicLong();
+    private volatile Instant lastSweepAt;
+
+    public TokenSweeper(TokenDAO tokenDAO, TokenService tokenService, PlatformTransactionManager transactionManager,
+                        @Value("${strava.tokens.sweep.enabled:true}") boolean enabled,
+                        @Value("${strava.tokens.sweep.batch-size:1000}") int batchSize,
+                        @Value("${strava.tokens.sweep.max-batches:100}") int maxBatches) {
+        this.tokenDAO = tokenDAO;
+        this.tokenService = tokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(initialDelayString = "${strava.tokens.sweep.initial-delay-seconds:60}",
+               fixedDelayString = "${strava.tokens.sweep.interval-seconds:600}", timeUnit = TimeUnit.SECONDS)
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    // Devuelve el número de tokens borrados. Si quedan más de maxBatches lotes, sigue en la próxima ejecución
+    public int sweep() {
+        long start = System.currentTimeMillis();
+        Instant now = Instant.now();
+
+        Integer legacy = transactionTemplate.execute(status ->
+                tokenDAO.assignLegacyExpiry(now, now.plusSeconds(tokenService.getTokenTtlSeconds())));
+        if (legacy != null && legacy > 0) {
+            legacyTokens.add(legacy);
+            logger.info("Assigned an expiry to {} tokens issued without one", legacy);
+        }
+
+        tokenService.removeExpiredRevocations(now);
+
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer removed = transactionTemplate.execute(status -> {
+                List<UUID> ids = tokenDAO.findExpiredIds(now, Limit.of(batchSize));
+                return ids.isEmpty() ? 0 : tokenDAO.deleteByIds(ids);
+            });
+            total += removed;
+            if (removed < batchSize) {
+                break;
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        sweeps.increment();
+        deleted.add(total);
+        lastDeleted.set(total);
+        lastSweepMillis.set(elapsed);
+        totalSweepMillis.addAndGet(elapsed);
+        maxSweepMillis.accumulateAndGet(elapsed, Math::max);
+        lastSweepAt = now;
+
+        if (total > 0) {
+            logger.info("Deleted {} expired or revoked tokens in {} ms", total, elapsed);
+        }
+        return total;
+    }
+
+    public Map<String, Object> getStats() {
+        long sweepCount = sweeps.sum();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("tableSize", tokenDAO.count());
+        stats.put("batchSize", batchSize);
+        stats.put("sweeps", sweepCount);
+        stats.put("deleted", deleted.sum());
+        stats.put("lastDeleted", lastDeleted.get());
+        stats.put("legacyTokens", legacyTokens.sum());
+        stats.put("revokedSignedTokens", tokenService.getRevocationListSize());
+        stats.put("lastSweepMs", lastSweepMillis.get());
+        stats.put("maxSweepMs", maxSweepMillis.get());
+        stats.put("avgSweepMs", sweepCount == 0 ? 0.0 : (double) totalSweepMillis.get() / sweepCount);
+        stats.put("lastSweepAt", lastSweepAt);
+        return stats;
+    }
+}
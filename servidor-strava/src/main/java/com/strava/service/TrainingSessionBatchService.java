@@ -0,0 +1,238 @@
+package com.strava.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strava.dao.TrainingSessionDAO;
+import com.strava.dto.ResponseWrapper;
+import com.strava.dto.TokenDTO;
+import com.strava.dto.TrainingSessionDTO;
+import com.strava.entity.TrainingSession;
+import com.strava.entity.User;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Alta masiva de sesiones de entrenamiento. Los elementos se leen uno a uno del cuerpo de la petición,
+// se validan individualmente y los válidos se insertan por bloques, cada bloque en su propia transacción
+@Service
+public class TrainingSessionBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainingSessionBatchService.class);
+
+    private final TrainingSessionDAO trainingSessionDAO;
+    private final TokenService tokenService;
+    private final ChallengeProgressService challengeProgressService;
+    private final DailyActivityService dailyActivityService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedItems;
+
+    public TrainingSessionBatchService(TrainingSessionDAO trainingSessionDAO, TokenService tokenService,
+                                       ChallengeProgressService challengeProgressService, DailyActivityService dailyActivityService,
+                                       PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                       Validator validator,
+                                       @Value("${strava.sessions.batch.chunk-size:500}") int chunkSize,
+                                       @Value("${strava.sessions.batch.max-reported-items:100}") int maxReportedItems) {
+        this.trainingSessionDAO = trainingSessionDAO;
+        this.tokenService = tokenService;
+        this.challengeProgressService = challengeProgressService;
+        this.dailyActivityService = dailyActivityService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedItems = maxReportedItems;
+    }
+
+    // Cuerpo con un array JSON de sesiones. Se recorre con el parser en streaming, sin cargar el array entero
+    public ResponseWrapper createSessionsFromArray(TokenDTO tokenDTO, InputStream body) throws IOException {
+        User user = tokenService.getUserFromToken(tokenDTO);
+        BatchImport batch = new BatchImport(user);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return batch.abort("The request body must be a JSON array of training sessions.");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                batch.add(objectMapper.readTree(parser));
+            }
+        } catch (JsonProcessingException e) {
+            // Un error de sintaxis impide seguir leyendo el array: se conserva lo procesado hasta ese punto
+            return batch.abort(e.getOriginalMessage());
+        }
+
+        return batch.finish();
+    }
+
+    // Cuerpo NDJSON: una sesión por línea. Una línea mal formada solo invalida ese elemento
+    public ResponseWrapper createSessionsFromNdjson(TokenDTO tokenDTO, InputStream body) throws IOException {
+        User user = tokenService.getUserFromToken(tokenDTO);
+        BatchImport batch = new BatchImport(user);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(objectMapper.readTree(line));
+            } catch (JsonProcessingException e) {
+                batch.reject(Map.of("json-parse", e.getOriginalMessage()));
+            }
+        }
+
+        return batch.finish();
+    }
+
+    // Estado de una importación: contadores y bloque de sesiones válidas pendientes de insertar. Solo se detallan
+    // los elementos rechazados o fallidos, y como mucho maxReportedItems, para que la memoria no crezca con el lote
+    private class BatchImport {
+        private final User user;
+        private final List<Map<String, Object>> results = new ArrayList<>();
+        private final List<TrainingSession> pending = new ArrayList<>(chunkSize);
+        private final List<Integer> pendingIndexes = new ArrayList<>(chunkSize);
+        private int index = 0;
+        private int created = 0;
+        private int rejected = 0;
+        private int failed = 0;
+        private boolean truncated = false;
+
+        BatchImport(User user) {
+            this.user = user;
+        }
+
+        void add(JsonNode node) {
+            TrainingSessionDTO sessionDTO;
+            try {
+                sessionDTO = objectMapper.treeToValue(node, TrainingSessionDTO.class);
+            } catch (JsonProcessingException e) {
+                // Por ejemplo, un deporte que no existe o una fecha con formato incorrecto
+                reject(Map.of("json-parse", e.getOriginalMessage()));
+                return;
+            }
+
+            Map<String, String> errors = validate(sessionDTO);
+            if (!errors.isEmpty()) {
+                reject(errors);
+                return;
+            }
+
+            TrainingSession session = new TrainingSession(sessionDTO);
+            session.setUser(user);
+
+            pending.add(session);
+            pendingIndexes.add(index++);
+
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(Map<String, String> errors) {
+            Map<String, Object> result = newResult(index++, "rejected");
+            if (result != null) {
+                result.put("errors", errors);
+            }
+            rejected++;
+        }
+
+        ResponseWrapper finish() {
+            flush();
+            return new ResponseWrapper(200, summary());
+        }
+
+        ResponseWrapper abort(String message) {
+            flush();
+            Map<String, Object> data = summary();
+            data.put("errors", Map.of("json-parse", message));
+            return new ResponseWrapper(400, data);
+        }
+
+        // Insertar el bloque pendiente y actualizar el progreso de los retos y los resúmenes diarios en una única transacción
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    trainingSessionDAO.saveAll(pending);
+                    challengeProgressService.addSessions(pending);
+                    dailyActivityService.addSessions(pending);
+                });
+                created += pending.size();
+            } catch (RuntimeException e) {
+                // Se ha deshecho la transacción del bloque: ninguna de sus sesiones se ha guardado
+                logger.error("Error saving a chunk of {} training sessions", pending.size(), e);
+                for (int pendingIndex : pendingIndexes) {
+                    Map<String, Object> result = newResult(pendingIndex, "failed");
+                    if (result != null) {
+                        result.put("error", "The session could not be saved.");
+                    }
+                }
+                failed += pending.size();
+            }
+
+            pending.clear();
+            pendingIndexes.clear();
+        }
+
+        // Devuelve null si ya se ha alcanzado el máximo de elementos detallados
+        private Map<String, Object> newResult(int itemIndex, String status) {
+            if (results.size() >= maxReportedItems) {
+                truncated = true;
+                return null;
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", itemIndex);
+            result.put("status", status);
+            results.add(result);
+            return result;
+        }
+
+        private Map<String, Object> summary() {
+            Map<String, Object> data = new HashMap<>();
+            data.put("created", created);
+            data.put("rejected", rejected);
+            data.put("failed", failed);
+            data.put("results", results);
+            data.put("truncated", truncated);
+            return data;
+        }
+    }
+
+    // Errores de validación de un elemento con el mismo formato que los de @Valid (campo -> mensaje)
+    private Map<String, String> validate(TrainingSessionDTO sessionDTO) {
+        Map<String, String> errors = new TreeMap<>();
+        for (ConstraintViolation<TrainingSessionDTO> violation : validator.validate(sessionDTO)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+}
@@ -1,17 +1,33 @@
 package com.strava.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import com.strava.dao.TrainingSessionDAO;
+import com.strava.dto.ExportFormat;
 import com.strava.dto.FilterDTO;
+import com.strava.dto.PageCursor;
 import com.strava.dto.ResponseWrapper;
 import com.strava.dto.TokenDTO;
 import com.strava.dto.TrainingSessionDTO;
@@ -24,10 +40,23 @@ public class TrainingSessionService {
 
     private final TrainingSessionDAO trainingSessionDAO;
     private final TokenService tokenService;
-
-    public TrainingSessionService(TrainingSessionDAO trainingSessionDAO, UserService userService, TokenService tokenService) {
+    private final ChallengeProgressService challengeProgressService;
+    private final DailyActivityService dailyActivityService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter sessionWriter;
+
+    public TrainingSessionService(TrainingSessionDAO trainingSessionDAO, UserService userService, TokenService tokenService,
+                                  ChallengeProgressService challengeProgressService, DailyActivityService dailyActivityService,
+                                  PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
         this.trainingSessionDAO = trainingSessionDAO;
         this.tokenService = tokenService;
+        this.challengeProgressService = challengeProgressService;
+        this.dailyActivityService = dailyActivityService;
+
+        // La exportación se escribe fuera del hilo de la petición, así que abre su propia transacción de solo lectura
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.sessionWriter = objectMapper.writerFor(TrainingSessionDTO.class);
     }
 
     // Crear una nueva sesión de entrenamiento
@@ -42,6 +71,10 @@ public class TrainingSessionService {
         // Guardar la sesión en la base de datos
         trainingSessionDAO.save(session);
 
+        // Actualizar el progreso de los retos a los que contribuye la sesión y el resumen del día
+        challengeProgressService.addSession(session);
+        dailyActivityService.addSession(session);
+
         return new ResponseWrapper(200, "session-id", session.getId());
     }
 
@@ -58,26 +91,95 @@ public class TrainingSessionService {
         SportType sport = filterDTO.getSport();
 
         // Establecer valores predeterminados si son null
-        if (filterDTO.getLimit() == null) {
-            filterDTO.setLimit(Integer.MAX_VALUE);  // Establecer límite por defecto a 5
-        }
-
         if (endDate == null) {
             filterDTO.setEndDate(LocalDate.now());  // Establecer fecha de fin por defecto a la fecha actual
         }
-        
-        // Convertir la información de filtro a parámetros compatibles con la consulta
-        Pageable pageable = PageRequest.of(0, filterDTO.getLimit());  // Usamos limit en la paginación
 
-        // Consultar las sesiones filtradas desde la base de datos
-        Page<TrainingSession> sessionsPage = trainingSessionDAO.findFilteredSessions(user.getId(), startDate, endDate, sport, pageable);
+        // Sin límite se devuelven todas las sesiones; con límite, se pide una más para saber si hay página siguiente
+        Integer limit = filterDTO.getLimit();
+        PageCursor cursor = PageCursor.decode(filterDTO.getCursor());
+
+        // Consultar las sesiones filtradas desde la base de datos a partir del cursor
+        List<TrainingSession> sessions = trainingSessionDAO.findFilteredSessions(
+                user.getId(), startDate, endDate, sport,
+                cursor != null ? cursor.getStartDate() : null,
+                cursor != null ? cursor.getId() : null,
+                limit != null ? Limit.of(Math.min(limit, Integer.MAX_VALUE - 1) + 1) : Limit.unlimited());
+
+        String nextCursor = null;
+        if (limit != null && sessions.size() > limit) {
+            sessions = sessions.subList(0, limit);
+            TrainingSession last = sessions.get(limit - 1);
+            nextCursor = new PageCursor(last.getStartDate(), last.getId()).encode();
+        }
 
         // Convertir las sesiones a DTOs y devolver el resultado
-        List<TrainingSessionDTO> sessionsDTO = sessionsPage.getContent().stream()
+        List<TrainingSessionDTO> sessionsDTO = sessions.stream()
                 .map(session -> new TrainingSessionDTO(session))
                 .collect(Collectors.toList());
 
-        return new ResponseWrapper(200, "sessions", sessionsDTO);
+        Map<String, Object> data = new HashMap<>();
+        data.put("sessions", sessionsDTO);
+        if (nextCursor != null) {
+            data.put("next-cursor", nextCursor);
+        }
+        // El total solo se calcula si se pide, ya que supone una segunda consulta
+        if (Boolean.TRUE.equals(filterDTO.getIncludeTotal())) {
+            data.put("total", trainingSessionDAO.countFilteredSessions(user.getId(), startDate, endDate, sport));
+        }
+        return new ResponseWrapper(200, data);
+    }
+
+    // Exportar todas las sesiones del usuario. Las filas se leen de un cursor de la base de datos y se escriben
+    // en la respuesta a medida que llegan, sin construir la lista completa en memoria
+    public StreamingResponseBody exportSessions(TokenDTO tokenDTO, ExportFormat format) {
+        // Validar el token antes de empezar a responder, para poder devolver un 401 normal
+        UUID userId = tokenService.getUserFromToken(tokenDTO).getId();
+
+        return outputStream -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<TrainingSessionDTO> sessions = trainingSessionDAO.streamByUserId(userId)) {
+                        switch (format) {
+                            case NDJSON -> writeNdjson(sessions, outputStream);
+                            case CSV -> writeCsv(sessions, outputStream);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();  // Normalmente el cliente ha cerrado la conexión
+            }
+        };
+    }
+
+    // Un objeto JSON por línea, con el mismo formato que las sesiones de GET /sessions
+    private void writeNdjson(Stream<TrainingSessionDTO> sessions, OutputStream outputStream) throws IOException {
+        for (TrainingSessionDTO session : (Iterable<TrainingSessionDTO>) sessions::iterator) {
+            outputStream.write(sessionWriter.writeValueAsBytes(session));
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+    }
+
+    private void writeCsv(Stream<TrainingSessionDTO> sessions, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write("id,title,sport,distance,startDate,startTime,duration\r\n");
+        for (TrainingSessionDTO session : (Iterable<TrainingSessionDTO>) sessions::iterator) {
+            writer.write(session.getId() + "," + csvField(session.getTitle()) + "," + session.getSport() + ","
+                    + session.getDistance() + "," + session.getStartDate() + "," + session.getStartTime() + ","
+                    + session.getDuration() + "\r\n");
+        }
+        writer.flush();
+    }
+
+    // Entrecomillar el campo si contiene separadores, comillas o saltos de línea (RFC 4180)
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
     }
 
     // Borrar una sesión de entrenamiento
@@ -91,7 +193,9 @@ public class TrainingSessionService {
             return new ResponseWrapper(404, "error", "Training session not found or does not belong to the user");
         }
 
-        // Borrar la sesión de entrenamiento
+        // Descontar la sesión del progreso de los retos y del resumen del día, y borrarla
+        challengeProgressService.removeSession(session);
+        dailyActivityService.removeSession(session);
         trainingSessionDAO.delete(session);
 
         return new ResponseWrapper(200, "message", "Training session deleted successfully");
@@ -108,6 +212,10 @@ public class TrainingSessionService {
             return new ResponseWrapper(404, "error", "Training session not found or does not belong to the user");
         }
 
+        // Descontar los valores anteriores de la sesión del progreso de los retos y del resumen del día
+        challengeProgressService.removeSession(session);
+        dailyActivityService.removeSession(session);
+
         // Actualizar todos los campos de la sesión
         session.setTitle(sessionDTO.getTitle());
         session.setSport(sessionDTO.getSport());
@@ -119,6 +227,10 @@ public class TrainingSessionService {
         // Guardar los cambios en la base de datos
         trainingSessionDAO.save(session);
 
+        // Sumar los nuevos valores de la sesión al progreso de los retos y al resumen del día
+        challengeProgressService.addSession(session);
+        dailyActivityService.addSession(session);
+
         return new ResponseWrapper(200, "message", "Training session updated successfully");
     }
 
@@ -2,11 +2,15 @@ package com.strava.service;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.strava.dao.TokenDAO;
+import com.strava.cache.CredentialCache;
 import com.strava.dao.UserDAO;
 import com.strava.dto.LoginDTO;
 import com.strava.dto.RegistrationDTO;
@@ -15,7 +19,7 @@ import com.strava.dto.TokenDTO;
 import com.strava.dto.UserDTO;
 import com.strava.dto.UserPhysicalInfoDTO;
 import com.strava.entity.User;
-import com.strava.entity.UserToken;
+import com.strava.entity.enumeration.AuthProvider;
 import com.strava.external.AuthGateway;
 import com.strava.external.FactoriaGateway;
 
@@ -25,47 +29,72 @@ public class UserService {
     @Autowired
     private UserDAO userDAO;
 
-    @Autowired
-    private TokenDAO tokenDAO;
-
     private final FactoriaGateway factoriaGateway;
     private final TokenService tokenService;
+    private final CredentialCache credentialCache;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserService(TokenService tokenService) {
-        this.factoriaGateway = new FactoriaGateway();
+    public UserService(FactoriaGateway factoriaGateway, TokenService tokenService, CredentialCache credentialCache,
+                       PlatformTransactionManager transactionManager) {
+        this.factoriaGateway = factoriaGateway;
         this.tokenService = tokenService;
+        this.credentialCache = credentialCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    // Registrar un nuevo usuario
-    public ResponseWrapper registerUser(RegistrationDTO userDTO) {
-        if (userDAO.findByEmail(userDTO.getEmail()).isPresent()) {
-            return new ResponseWrapper(409, "error", "This email is already registered.");
+    // Registrar un nuevo usuario. Las validaciones de email y contraseña con el proveedor se lanzan en paralelo y
+    // ningún hilo de petición espera por ellas: la respuesta se completa cuando terminan. Si el email no es válido se
+    // responde sin esperar a la contraseña (su petición ya enviada termina sola y el resultado se descarta).
+    // El usuario se guarda en la continuación, en su propia transacción, sin retener una conexión durante las llamadas
+    public CompletableFuture<ResponseWrapper> registerUser(RegistrationDTO userDTO) {
+        String email = userDTO.getEmail();
+        if (userDAO.findByEmail(email).isPresent()) {
+            return CompletableFuture.completedFuture(new ResponseWrapper(409, "error", "This email is already registered."));
         }
 
         AuthGateway authGateway = factoriaGateway.createGateway(userDTO.getAuthProvider());
 
-        Optional<Boolean> emailValidOptional = authGateway.validateEmail(userDTO.getEmail());
-        if (emailValidOptional.isEmpty()) {
-            return new ResponseWrapper(500, "error", "Error communicating with authentication provider for email validation.");
-        }
-        boolean emailValid = emailValidOptional.get();
-        if (!emailValid) {
-            return new ResponseWrapper(404, "error", "Email is not registered with the specified provider.");
-        }
+        CompletableFuture<Optional<Boolean>> emailValidFuture = authGateway.validateEmailAsync(email);
+        CompletableFuture<Optional<Boolean>> passwordValidFuture = authGateway.validatePasswordAsync(email, userDTO.getPassword());
+
+        return emailValidFuture.thenCompose(emailValidOptional -> {
+            if (emailValidOptional.isEmpty()) {
+                return CompletableFuture.completedFuture(
+                    new ResponseWrapper(500, "error", "Error communicating with authentication provider for email validation."));
+            }
+            if (!emailValidOptional.get()) {
+                return CompletableFuture.completedFuture(
+                    new ResponseWrapper(404, "error", "Email is not registered with the specified provider."));
+            }
+
+            return passwordValidFuture.thenApply(passwordValidOptional -> {
+                if (passwordValidOptional.isEmpty()) {
+                    return new ResponseWrapper(500, "error", "Error communicating with authentication provider for password validation.");
+                }
+                boolean passwordValid = passwordValidOptional.get();
+                if (!passwordValid) {
+                    return new ResponseWrapper(401, "error", "Invalid credentials");
+                }
+                return saveNewUser(userDTO);
+            });
+        });
+    }
 
-        Optional<Boolean> passwordValidOptional = authGateway.validatePassword(userDTO.getEmail(), userDTO.getPassword());
-        if (passwordValidOptional.isEmpty()) {
-            return new ResponseWrapper(500, "error", "Error communicating with authentication provider for password validation.");
-        }
-        boolean passwordValid = passwordValidOptional.get();
-        if (!passwordValid) {
-            return new ResponseWrapper(401, "error", "Invalid credentials");
+    // Guardar el usuario registrado. Se vuelve a comprobar el email porque otro registro ha podido completarse
+    // mientras se esperaba al proveedor; si dos coinciden, la restricción única de la columna decide
+    private ResponseWrapper saveNewUser(RegistrationDTO userDTO) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (userDAO.findByEmail(userDTO.getEmail()).isPresent()) {
+                    return new ResponseWrapper(409, "error", "This email is already registered.");
+                }
+                User user = new User(userDTO);
+                userDAO.save(user);
+                return new ResponseWrapper(201, "user-id", user.getId());
+            });
+        } catch (DataIntegrityViolationException e) {
+            return new ResponseWrapper(409, "error", "This email is already registered.");
         }
-
-        User user = new User(userDTO);
-        userDAO.save(user);
-
-        return new ResponseWrapper(201, "user-id", user.getId());
     }
 
     // Iniciar sesión de usuario
@@ -82,39 +111,35 @@ public class UserService {
 
         User user = optionalUser.get();
 
-        // Valida las credenciales de usuario con el proveedor correspondiente
-        AuthGateway authGateway = factoriaGateway.createGateway(user.getAuthProvider());
-
-        Optional<Boolean> credentialsValidOptional = authGateway.validatePassword(email, password);
-        if (credentialsValidOptional.isEmpty()) {
-            return new ResponseWrapper(500, "error", "Error communicating with authentication provider for password validation.");
-        }
-        boolean credentialsValid = credentialsValidOptional.get();
-        if (!credentialsValid) {
-            return new ResponseWrapper(401, "error", "Invalid credentials.");
+        // Valida las credenciales de usuario con el proveedor correspondiente, salvo que se hayan verificado recientemente
+        AuthProvider provider = user.getAuthProvider();
+        if (!credentialCache.isVerified(provider, email, password)) {
+            AuthGateway authGateway = factoriaGateway.createGateway(provider);
+
+            Optional<Boolean> credentialsValidOptional = authGateway.validatePassword(email, password);
+            if (credentialsValidOptional.isEmpty()) {
+                return new ResponseWrapper(500, "error", "Error communicating with authentication provider for password validation.");
+            }
+            boolean credentialsValid = credentialsValidOptional.get();
+            if (!credentialsValid) {
+                credentialCache.recordFailure(provider, email);
+                return new ResponseWrapper(401, "error", "Invalid credentials.");
+            }
+            credentialCache.recordSuccess(provider, email, password);
         }
 
-        // Genera un token de usuario y lo almacena en la base de datos
-        String token = tokenService.generateToken();
-        UserToken userToken = new UserToken(user, token);
-        tokenDAO.save(userToken);
+        // Genera un token de usuario (guardado en la base de datos o firmado, según strava.tokens.mode)
+        String token = tokenService.issueToken(user);
 
         return new ResponseWrapper(200, "token", token);
     }
 
     // Cerrar sesión de usuario
     public ResponseWrapper logoutUser(TokenDTO tokenDTO) {
-        String token = tokenDTO.getToken();
-        Optional<UserToken> optionalToken = tokenDAO.findByToken(token);
-
-        if (optionalToken.isEmpty()) {
+        if (!tokenService.revokeToken(tokenDTO.getToken())) {
             return new ResponseWrapper(400, "error", "Invalid token.");
         }
 
-        UserToken userToken = optionalToken.get();
-        userToken.setRevoked(true);
-        tokenDAO.save(userToken);
-
         return new ResponseWrapper(200, "message", "User logged out successfully.");
     }
 
@@ -0,0 +1,30 @@
+package com.strava.benchmark;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+// Utilidades comunes de los benchmarks. Los tamaños se leen de propiedades del sistema "benchmark.*",
+// que la tarea ./gradlew benchmark copia de las propiedades -P de Gradle
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {}
+
+    static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger("benchmark." + name, defaultValue);
+    }
+
+    // Base de datos H2 en fichero (como la de la aplicación), para que cuenten la caché de páginas y el tamaño en disco
+    static Connection openH2(Path directory, String name) throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:file:" + directory.resolve(name).toAbsolutePath(), "sa", "");
+    }
+
+    static double millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    static void report(String format, Object... args) {
+        System.out.println(String.format(format, args));
+    }
+}
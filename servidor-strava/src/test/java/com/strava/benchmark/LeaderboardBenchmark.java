@@ -0,0 +1,113 @@
+package com.strava.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.strava.cache.ChallengeLeaderboard;
+import com.strava.entity.Challenge;
+import com.strava.entity.enumeration.ObjectiveType;
+import com.strava.entity.enumeration.SportType;
+
+// Coste por operación de la clasificación en memoria (sumar a un participante, los N primeros y la ventana
+// alrededor de un usuario) según crece el número de participantes, frente a la consulta anterior, que ordenaba
+// a todos los participantes en cada petición. El índice debe crecer como log n; la ordenación, como n log n.
+//   ./gradlew benchmark --tests '*LeaderboardBenchmark' -Pbenchmark.leaderboard.max-participants=1000000
+@Tag("benchmark")
+class LeaderboardBenchmark {
+
+    private static final int TOP = 10;
+
+    @Test
+    void indexOperationsGrowLogarithmically() {
+        int maxParticipants = BenchmarkSupport.intProperty("leaderboard.max-participants", 1_000_000);
+        int operations = BenchmarkSupport.intProperty("leaderboard.operations", 200_000);
+        int sortQueries = BenchmarkSupport.intProperty("leaderboard.sort-queries", 5);
+        int warmupRounds = BenchmarkSupport.intProperty("leaderboard.warmup-rounds", 3);
+
+        // Rondas de calentamiento del JIT, sin informe
+        for (int round = 0; round < warmupRounds; round++) {
+            measure(10_000, operations, sortQueries);
+        }
+
+        BenchmarkSupport.report("%-12s %14s %14s %16s %16s", "participants", "add (ns/op)", "top (ns/op)", "around (ns/op)", "sort (ms/query)");
+        for (int participants = 1_000; participants <= maxParticipants; participants *= 10) {
+            Timings timings = measure(participants, operations, sortQueries);
+            BenchmarkSupport.report("%-12d %14.0f %14.0f %16.0f %16.2f", participants, timings.addNanos(), timings.topNanos(),
+                    timings.aroundNanos(), timings.sortMillis());
+        }
+    }
+
+    private static Timings measure(int participants, int operations, int sortQueries) {
+        Random random = new Random(42);
+        List<UUID> userIds = new ArrayList<>(participants);
+        List<Row> rows = new ArrayList<>(participants);
+        ChallengeLeaderboard leaderboard = new ChallengeLeaderboard(challenge());
+        for (int i = 0; i < participants; i++) {
+            UUID userId = new UUID(0, i);
+            double value = random.nextInt(1_000);
+            userIds.add(userId);
+            rows.add(new Row(userId, value));
+            leaderboard.put(userId, "User " + i, value);
+        }
+
+        // Sesiones nuevas de usuarios al azar
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            leaderboard.add(userIds.get(random.nextInt(participants)), random.nextInt(20));
+        }
+        double addNanos = BenchmarkSupport.millisSince(start) * 1_000_000 / operations;
+
+        long checksum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            checksum += leaderboard.top(TOP).size();
+        }
+        double topNanos = BenchmarkSupport.millisSince(start) * 1_000_000 / operations;
+
+        start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            checksum += leaderboard.around(userIds.get(random.nextInt(participants)), TOP).size();
+        }
+        double aroundNanos = BenchmarkSupport.millisSince(start) * 1_000_000 / operations;
+        assertEquals(2L * operations * Math.min(TOP, participants), checksum);
+
+        // Consulta anterior: ordenar a todos los participantes y buscar la posición del usuario
+        start = System.nanoTime();
+        for (int i = 0; i < sortQueries; i++) {
+            UUID userId = userIds.get(random.nextInt(participants));
+            List<Row> sorted = new ArrayList<>(rows);
+            sorted.sort(Comparator.comparingDouble(Row::value).reversed());
+            int position = 0;
+            while (!sorted.get(position).userId().equals(userId)) {
+                position++;
+            }
+            checksum += sorted.subList(0, TOP).size() + position;
+        }
+        double sortMillis = BenchmarkSupport.millisSince(start) / sortQueries;
+
+        return new Timings(addNanos, topNanos, aroundNanos, sortMillis);
+    }
+
+    private static Challenge challenge() {
+        Challenge challenge = new Challenge();
+        challenge.setSport(SportType.RUNNING);
+        challenge.setObjectiveType(ObjectiveType.DISTANCIA);
+        challenge.setObjectiveValue(1_000.0);
+        challenge.setStartDate(LocalDate.of(2025, 1, 1));
+        challenge.setEndDate(LocalDate.of(2025, 12, 31));
+        return challenge;
+    }
+
+    private record Row(UUID userId, double value) {}
+
+    private record Timings(double addNanos, double topNanos, double aroundNanos, double sortMillis) {}
+}
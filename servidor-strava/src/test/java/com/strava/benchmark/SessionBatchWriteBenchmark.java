@@ -0,0 +1,109 @@
+package com.strava.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.strava.StravaApplication;
+import com.strava.dao.TrainingSessionDAO;
+import com.strava.dao.UserDAO;
+import com.strava.dto.ResponseWrapper;
+import com.strava.dto.TokenDTO;
+import com.strava.entity.User;
+import com.strava.entity.enumeration.AuthProvider;
+import com.strava.service.TokenService;
+import com.strava.service.TrainingSessionBatchService;
+
+// Rendimiento de POST /sessions/batch (NDJSON) sin lotes JDBC, con la configuración por defecto y con el perfil
+// bulk-writes. Cada configuración arranca la aplicación sin servidor web sobre su propia base de datos H2 en fichero.
+//   ./gradlew benchmark --tests '*SessionBatchWriteBenchmark' -Pbenchmark.batch.sessions=500000
+@Tag("benchmark")
+class SessionBatchWriteBenchmark {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void batchingIncreasesBulkSessionThroughput() throws IOException {
+        int sessions = BenchmarkSupport.intProperty("batch.sessions", 200_000);
+        byte[] body = ndjson(sessions);
+
+        List<Configuration> configurations = List.of(
+                new Configuration("no batching", List.of("strava.jpa.batch-size=1",
+                        "spring.jpa.properties.hibernate.order_inserts=false",
+                        "spring.jpa.properties.hibernate.order_updates=false")),
+                new Configuration("default", List.of()),
+                new Configuration("bulk-writes", List.of("spring.profiles.active=bulk-writes")));
+
+        BenchmarkSupport.report("%-12s %12s %12s %14s", "config", "sessions", "time (ms)", "sessions/s");
+        for (Configuration configuration : configurations) {
+            try (ConfigurableApplicationContext context = start(configuration)) {
+                TrainingSessionBatchService batchService = context.getBean(TrainingSessionBatchService.class);
+                TokenDTO tokenDTO = new TokenDTO(context.getBean(TokenService.class).issueToken(newUser(context)));
+
+                long start = System.nanoTime();
+                ResponseWrapper response = batchService.createSessionsFromNdjson(tokenDTO, new ByteArrayInputStream(body));
+                double elapsed = BenchmarkSupport.millisSince(start);
+
+                assertEquals(sessions, response.getData().get("created"));
+                assertEquals(sessions, context.getBean(TrainingSessionDAO.class).count());
+                BenchmarkSupport.report("%-12s %12d %12.0f %14.0f", configuration.name(), sessions, elapsed,
+                        sessions / (elapsed / 1000.0));
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(Configuration configuration) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:file:" + directory.resolve(configuration.name().replace(' ', '-')).toAbsolutePath(),
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.h2.console.enabled=false",
+                "strava.tokens.sweep.enabled=false",
+                "logging.level.root=WARN"));
+        properties.addAll(configuration.properties());
+
+        // Como argumentos de línea de comandos, para que prevalezcan sobre application.properties
+        return new SpringApplicationBuilder(StravaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    private static User newUser(ConfigurableApplicationContext context) {
+        User user = new User();
+        user.setEmail("benchmark@example.com");
+        user.setName("Benchmark");
+        user.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        user.setAuthProvider(AuthProvider.META);
+        return context.getBean(UserDAO.class).save(user);
+    }
+
+    // Sesiones válidas repartidas a lo largo de unos tres años, varias por día
+    private static byte[] ndjson(int sessions) {
+        StringBuilder builder = new StringBuilder(sessions * 130);
+        LocalDate first = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < sessions; i++) {
+            builder.append("{\"title\":\"Session ").append(i)
+                   .append("\",\"sport\":\"").append(i % 2 == 0 ? "RUNNING" : "CICLISMO")
+                   .append("\",\"distance\":").append(5 + i % 40)
+                   .append(",\"startDate\":\"").append(first.plusDays(i % 1000))
+                   .append("\",\"startTime\":\"07:30\",\"duration\":").append(20 + i % 100)
+                   .append("}\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Configuration(String name, List<String> properties) {}
+}
@@ -0,0 +1,145 @@
+package com.strava.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.strava.entity.TrainingSession;
+
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Tiempo de la consulta de /sessions (usuario, deporte y rango de fechas, ordenada por fecha) a medida que crece
+// la tabla de sesiones, con el índice declarado en TrainingSession y sin él (USE INDEX () obliga a recorrer la tabla).
+//   ./gradlew benchmark --tests '*SessionFilterIndexBenchmark' -Pbenchmark.sessions=20000000
+@Tag("benchmark")
+class SessionFilterIndexBenchmark {
+
+    private static final LocalDate LAST_DATE = LocalDate.of(2025, 12, 31);
+    private static final int DAYS = 3650;
+    private static final int INSERT_CHUNK = 500_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void filterQueryStaysFlatAsSessionsGrow() throws SQLException {
+        int maxSessions = BenchmarkSupport.intProperty("sessions", 2_000_000);
+        int users = BenchmarkSupport.intProperty("sessions.users", 1_000);
+        int queries = BenchmarkSupport.intProperty("sessions.queries", 200);
+        int scanQueries = BenchmarkSupport.intProperty("sessions.scan-queries", 3);
+
+        // El índice se toma de la propia entidad, para medir exactamente el que crea Hibernate
+        Index index = TrainingSession.class.getAnnotation(Table.class).indexes()[0];
+
+        try (Connection connection = BenchmarkSupport.openH2(directory, "sessions")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE sessions (id UUID PRIMARY KEY, user_id UUID NOT NULL, title VARCHAR(255) NOT NULL, " +
+                        "sport VARCHAR(255) NOT NULL, distance DOUBLE NOT NULL, start_date DATE NOT NULL, " +
+                        "start_time TIME NOT NULL, duration DOUBLE NOT NULL)");
+                statement.execute("CREATE INDEX " + index.name() + " ON sessions (" + index.columnList() + ")");
+            }
+
+            BenchmarkSupport.report("%12s %16s %16s", "sessions", "indexed (ms)", "full scan (ms)");
+            long loaded = 0;
+            for (long size : sizes(maxSessions)) {
+                insertSessions(connection, loaded, size, users);
+                loaded = size;
+
+                double indexed = averageQueryMillis(connection, "", users, queries);
+                double scan = averageQueryMillis(connection, "USE INDEX ()", users, scanQueries);
+                BenchmarkSupport.report("%12d %16.3f %16.3f", size, indexed, scan);
+            }
+
+            String plan = explain(connection);
+            assertTrue(plan.toUpperCase().contains(index.name().toUpperCase()), "The filter query must use " + index.name() + ": " + plan);
+        }
+    }
+
+    // 100.000, 1.000.000, 10.000.000... hasta el máximo pedido
+    private static List<Long> sizes(long max) {
+        List<Long> sizes = new ArrayList<>();
+        for (long size = 100_000; size < max; size *= 10) {
+            sizes.add(size);
+        }
+        sizes.add(max);
+        return sizes;
+    }
+
+    // Inserta las sesiones (from, to] en la propia base de datos, por bloques para no acumular una transacción enorme.
+    // Cada usuario reparte sus sesiones entre los dos deportes a lo largo de diez años
+    private static void insertSessions(Connection connection, long from, long to, int users) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (long start = from + 1; start <= to; start += INSERT_CHUNK) {
+                long end = Math.min(to, start + INSERT_CHUNK - 1);
+                statement.executeUpdate(String.format(
+                        "INSERT INTO sessions (id, user_id, title, sport, distance, start_date, start_time, duration) " +
+                        "SELECT RANDOM_UUID(), CAST('00000000-0000-4000-8000-' || LPAD(CAST(MOD(X, %1$d) AS VARCHAR), 12, '0') AS UUID), " +
+                        "'Session ' || X, CASE MOD(X / %1$d, 2) WHEN 0 THEN 'RUNNING' ELSE 'CICLISMO' END, MOD(X, 50) + 1.5, " +
+                        "DATEADD(DAY, -MOD(X / %1$d, %2$d), DATE '%3$s'), TIME '07:30:00', MOD(X, 120) + 10.0 " +
+                        "FROM SYSTEM_RANGE(%4$d, %5$d)", users, DAYS, LAST_DATE, start, end));
+            }
+        }
+    }
+
+    // Misma forma que la consulta por especificación de TrainingSessionDAO: primera página de 20 sesiones
+    private static String filterQuery(String indexHint) {
+        return "SELECT id, title, sport, distance, start_date, start_time, duration FROM sessions " + indexHint + " " +
+               "WHERE user_id = ? AND sport = ? AND start_date >= ? AND start_date <= ? " +
+               "ORDER BY start_date DESC, id DESC LIMIT 20";
+    }
+
+    private static double averageQueryMillis(Connection connection, String indexHint, int users, int queries) throws SQLException {
+        Random random = new Random(42);
+        long rows = 0;
+        long start = System.nanoTime();
+        try (PreparedStatement statement = connection.prepareStatement(filterQuery(indexHint))) {
+            for (int i = 0; i < queries; i++) {
+                LocalDate endDate = LAST_DATE.minusDays(random.nextInt(DAYS));
+                statement.setObject(1, userId(random.nextInt(users)));
+                statement.setString(2, random.nextBoolean() ? "RUNNING" : "CICLISMO");
+                statement.setDate(3, Date.valueOf(endDate.minusDays(90)));
+                statement.setDate(4, Date.valueOf(endDate));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows++;
+                    }
+                }
+            }
+        }
+        assertTrue(rows > 0, "The benchmark queries should return sessions");
+        return BenchmarkSupport.millisSince(start) / queries;
+    }
+
+    private static String explain(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + filterQuery(""))) {
+            statement.setObject(1, userId(0));
+            statement.setString(2, "RUNNING");
+            statement.setDate(3, Date.valueOf(LAST_DATE.minusDays(90)));
+            statement.setDate(4, Date.valueOf(LAST_DATE));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    private static UUID userId(int user) {
+        return UUID.fromString(String.format("00000000-0000-4000-8000-%012d", user));
+    }
+}
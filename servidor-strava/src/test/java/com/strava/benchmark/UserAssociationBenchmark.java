@@ -0,0 +1,108 @@
+package com.strava.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.strava.entity.TrainingSession;
+import com.strava.entity.User;
+
+// Coste de añadir y quitar sesiones de un usuario con muchas: la colección antigua (List con una comprobación
+// List.contains antes de cada alta) frente a los métodos actuales de User sobre un Set. Solo mide la colección
+// en memoria; fuera de Hibernate la colección siempre está inicializada.
+//   ./gradlew benchmark --tests '*UserAssociationBenchmark' -Pbenchmark.associations.elements=10000
+@Tag("benchmark")
+class UserAssociationBenchmark {
+
+    @Test
+    void setAddsStayConstantAsAssociationsGrow() {
+        int elements = BenchmarkSupport.intProperty("associations.elements", 10_000);
+        int warmupRounds = BenchmarkSupport.intProperty("associations.warmup-rounds", 5);
+        int rounds = BenchmarkSupport.intProperty("associations.rounds", 5);
+
+        List<TrainingSession> sessions = new ArrayList<>(elements);
+        for (int i = 0; i < elements; i++) {
+            sessions.add(new TrainingSession());
+        }
+        List<TrainingSession> removalOrder = new ArrayList<>(sessions);
+        Collections.shuffle(removalOrder, new Random(42));
+
+        // Rondas de calentamiento del JIT, sin informe
+        for (int round = 0; round < warmupRounds; round++) {
+            listGuarded(sessions, removalOrder);
+            userSet(sessions, removalOrder);
+        }
+
+        BenchmarkSupport.report("%-6s %-6s %12s %18s %12s", "round", "impl", "add all (ms)", "last adds (us/op)", "remove (ms)");
+        for (int round = 1; round <= rounds; round++) {
+            Timings list = listGuarded(sessions, removalOrder);
+            Timings set = userSet(sessions, removalOrder);
+            BenchmarkSupport.report("%-6d %-6s %12.2f %18.3f %12.2f", round, "list", list.addMillis(), list.lastAddMicros(), list.removeMillis());
+            BenchmarkSupport.report("%-6d %-6s %12.2f %18.3f %12.2f", round, "set", set.addMillis(), set.lastAddMicros(), set.removeMillis());
+        }
+    }
+
+    // Comportamiento anterior: if (!sessions.contains(session)) sessions.add(session)
+    private static Timings listGuarded(List<TrainingSession> sessions, List<TrainingSession> removalOrder) {
+        List<TrainingSession> list = new ArrayList<>();
+        long start = System.nanoTime();
+        long lastStart = 0;
+        for (int i = 0; i < sessions.size(); i++) {
+            if (i == sessions.size() - tail(sessions)) {
+                lastStart = System.nanoTime();
+            }
+            TrainingSession session = sessions.get(i);
+            if (!list.contains(session)) {
+                list.add(session);
+            }
+        }
+        long end = System.nanoTime();
+        assertEquals(sessions.size(), list.size());
+
+        long removeStart = System.nanoTime();
+        for (TrainingSession session : removalOrder) {
+            list.remove(session);
+        }
+        double removeMillis = BenchmarkSupport.millisSince(removeStart);
+        assertTrue(list.isEmpty());
+
+        return new Timings((end - start) / 1_000_000.0, (end - lastStart) / 1_000.0 / tail(sessions), removeMillis);
+    }
+
+    private static Timings userSet(List<TrainingSession> sessions, List<TrainingSession> removalOrder) {
+        User user = new User();
+        long start = System.nanoTime();
+        long lastStart = 0;
+        for (int i = 0; i < sessions.size(); i++) {
+            if (i == sessions.size() - tail(sessions)) {
+                lastStart = System.nanoTime();
+            }
+            user.addSession(sessions.get(i));
+        }
+        long end = System.nanoTime();
+        assertEquals(sessions.size(), user.getSessions().size());
+
+        long removeStart = System.nanoTime();
+        for (TrainingSession session : removalOrder) {
+            user.removeSession(session);
+        }
+        double removeMillis = BenchmarkSupport.millisSince(removeStart);
+        assertTrue(user.getSessions().isEmpty());
+
+        return new Timings((end - start) / 1_000_000.0, (end - lastStart) / 1_000.0 / tail(sessions), removeMillis);
+    }
+
+    // Las últimas altas (el 10 %), cuando la colección ya tiene casi todos los elementos
+    private static int tail(List<TrainingSession> sessions) {
+        return Math.max(1, sessions.size() / 10);
+    }
+
+    private record Timings(double addMillis, double lastAddMicros, double removeMillis) {}
+}
@@ -0,0 +1,120 @@
+package com.strava.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.strava.entity.generator.UuidV7Generator;
+
+// Velocidad de inserción y tamaño en disco de una tabla como sessions con claves UUID aleatorias (v4) y con
+// claves ordenadas por tiempo (v7, UuidV7Generator). La velocidad se mide por tramos para ver cómo evoluciona
+// según crece el índice de la clave primaria.
+//   ./gradlew benchmark --tests '*UuidKeyInsertBenchmark' -Pbenchmark.uuid.rows=10000000
+@Tag("benchmark")
+class UuidKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void timeOrderedKeysInsertFasterAndPackTighter() throws SQLException, IOException {
+        int rows = BenchmarkSupport.intProperty("uuid.rows", 2_000_000);
+        int steps = BenchmarkSupport.intProperty("uuid.steps", 4);
+
+        Result random = insert("random", UUID::randomUUID, rows, steps);
+        Result timeOrdered = insert("uuidv7", UuidV7Generator::next, rows, steps);
+
+        BenchmarkSupport.report("%-8s %14s %14s", "rows", "v4 (rows/s)", "v7 (rows/s)");
+        for (int i = 0; i < steps; i++) {
+            BenchmarkSupport.report("%-8d %14.0f %14.0f", random.stepRows().get(i), random.stepRates().get(i), timeOrdered.stepRates().get(i));
+        }
+        BenchmarkSupport.report("%-8s %14s %14s", "", "v4", "v7");
+        BenchmarkSupport.report("%-8s %14d %14d", "table KB", random.tableKilobytes(), timeOrdered.tableKilobytes());
+        BenchmarkSupport.report("%-8s %14d %14d", "file KB", random.fileKilobytes(), timeOrdered.fileKilobytes());
+    }
+
+    private Result insert(String name, Supplier<UUID> ids, int rows, int steps) throws SQLException, IOException {
+        List<Integer> stepRows = new ArrayList<>();
+        List<Double> stepRates = new ArrayList<>();
+        long tableKilobytes;
+
+        try (Connection connection = BenchmarkSupport.openH2(directory, name)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE sessions (id UUID PRIMARY KEY, user_id UUID NOT NULL, title VARCHAR(255) NOT NULL, " +
+                        "sport VARCHAR(255) NOT NULL, distance DOUBLE NOT NULL, start_date DATE NOT NULL, " +
+                        "start_time TIME NOT NULL, duration DOUBLE NOT NULL)");
+            }
+            connection.setAutoCommit(false);
+
+            UUID userId = UUID.randomUUID();
+            Date startDate = Date.valueOf(LocalDate.of(2025, 1, 1));
+            Time startTime = Time.valueOf(LocalTime.of(7, 30));
+            int inserted = 0;
+
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO sessions " +
+                    "(id, user_id, title, sport, distance, start_date, start_time, duration) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int step = 1; step <= steps; step++) {
+                    int target = (int) ((long) rows * step / steps);
+                    int stepStart = inserted;
+                    long start = System.nanoTime();
+
+                    while (inserted < target) {
+                        int end = Math.min(target, inserted + BATCH_SIZE);
+                        for (; inserted < end; inserted++) {
+                            statement.setObject(1, ids.get());
+                            statement.setObject(2, userId);
+                            statement.setString(3, "Session " + inserted);
+                            statement.setString(4, inserted % 2 == 0 ? "RUNNING" : "CICLISMO");
+                            statement.setDouble(5, 10.0);
+                            statement.setDate(6, startDate);
+                            statement.setTime(7, startTime);
+                            statement.setDouble(8, 45.0);
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+
+                    stepRows.add(target);
+                    stepRates.add((target - stepStart) / (BenchmarkSupport.millisSince(start) / 1000.0));
+                }
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CHECKPOINT SYNC");
+                try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*), DISK_SPACE_USED('SESSIONS') FROM sessions")) {
+                    resultSet.next();
+                    assertEquals(rows, resultSet.getLong(1));
+                    tableKilobytes = resultSet.getLong(2) / 1024;
+                }
+            }
+        }
+
+        // Tamaño del fichero una vez cerrada la base de datos
+        long fileKilobytes = Files.size(directory.resolve(name + ".mv.db")) / 1024;
+        return new Result(stepRows, stepRates, tableKilobytes, fileKilobytes);
+    }
+
+    private record Result(List<Integer> stepRows, List<Double> stepRates, long tableKilobytes, long fileKilobytes) {}
+}
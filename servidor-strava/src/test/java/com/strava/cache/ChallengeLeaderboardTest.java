@@ -0,0 +1,83 @@
+package com.strava.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.strava.entity.Challenge;
+import com.strava.entity.enumeration.ObjectiveType;
+import com.strava.entity.enumeration.SportType;
+
+class ChallengeLeaderboardTest {
+
+    private ChallengeLeaderboard leaderboard;
+
+    // Participantes 0..9 con valores 0..9: el participante i está en la posición 10 - i
+    @BeforeEach
+    void setUp() {
+        Challenge challenge = new Challenge();
+        challenge.setSport(SportType.RUNNING);
+        challenge.setObjectiveType(ObjectiveType.DISTANCIA);
+        challenge.setObjectiveValue(100.0);
+        challenge.setStartDate(LocalDate.of(2025, 1, 1));
+        challenge.setEndDate(LocalDate.of(2025, 12, 31));
+
+        leaderboard = new ChallengeLeaderboard(challenge);
+        for (int i = 0; i < 10; i++) {
+            leaderboard.put(userId(i), "User " + i, i);
+        }
+    }
+
+    @Test
+    void topIsOrderedAndCappedAtSize() {
+        assertEquals(List.of(1, 2, 3), ranks(leaderboard.top(3)));
+        assertEquals(userId(9), leaderboard.top(3).get(0).userId());
+        assertEquals(10, leaderboard.top(50).size());
+    }
+
+    // Ventana centrada en el usuario cuando hay sitio a los dos lados
+    @Test
+    void aroundIsCenteredInTheMiddle() {
+        List<ChallengeLeaderboard.RankedParticipant> window = leaderboard.around(userId(5), 3);
+        assertEquals(List.of(4, 5, 6), ranks(window));
+        assertEquals(userId(5), window.get(1).userId());
+    }
+
+    // En los extremos la ventana se desplaza para seguir teniendo el tamaño pedido
+    @Test
+    void aroundIsShiftedAtBothEnds() {
+        assertEquals(List.of(1, 2, 3, 4), ranks(leaderboard.around(userId(9), 4)));
+        assertEquals(List.of(7, 8, 9, 10), ranks(leaderboard.around(userId(0), 4)));
+        assertEquals(10, leaderboard.around(userId(0), 50).size());
+    }
+
+    @Test
+    void aroundUnknownUserIsEmpty() {
+        assertTrue(leaderboard.around(UUID.randomUUID(), 3).isEmpty());
+    }
+
+    // Sumar a un participante lo mueve en la clasificación; a un usuario que no participa se le ignora
+    @Test
+    void addMovesParticipant() {
+        leaderboard.add(userId(0), 20);
+        assertEquals(userId(0), leaderboard.top(1).get(0).userId());
+        assertEquals(20.0, leaderboard.top(1).get(0).value());
+
+        leaderboard.add(UUID.randomUUID(), 100);
+        assertEquals(10, leaderboard.size());
+    }
+
+    private static List<Integer> ranks(List<ChallengeLeaderboard.RankedParticipant> participants) {
+        return participants.stream().map(ChallengeLeaderboard.RankedParticipant::rank).toList();
+    }
+
+    private static UUID userId(int i) {
+        return new UUID(0, i);
+    }
+}
@@ -0,0 +1,137 @@
+package com.strava.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class RankedIndexTest {
+
+    private static final UUID A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final UUID C = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+
+    // A igual valor, el usuario con menor id va primero, sin importar el orden de inserción
+    @Test
+    void tiesAreOrderedByUserId() {
+        RankedIndex index = new RankedIndex();
+        index.insert(C, 10);
+        index.insert(A, 10);
+        index.insert(B, 10);
+
+        assertEquals(List.of(A, B, C), users(index));
+        assertEquals(0, index.rankOf(A, 10));
+        assertEquals(1, index.rankOf(B, 10));
+        assertEquals(2, index.rankOf(C, 10));
+    }
+
+    // Actualizar es quitar con el valor anterior e insertar con el nuevo; el empate se rompe de nuevo por id
+    @Test
+    void updateAndRemoveWithEqualValues() {
+        RankedIndex index = new RankedIndex();
+        index.insert(A, 5);
+        index.insert(B, 10);
+        index.insert(C, 10);
+
+        index.remove(A, 5);
+        index.insert(A, 10);
+        assertEquals(List.of(A, B, C), users(index));
+
+        // Quitar uno de los empatados no toca a los demás
+        index.remove(B, 10);
+        assertEquals(List.of(A, C), users(index));
+        assertEquals(1, index.rankOf(C, 10));
+
+        index.remove(C, 10);
+        index.insert(C, 20);
+        assertEquals(List.of(C, A), users(index));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void rankAndSelectAtBothEnds() {
+        RankedIndex index = new RankedIndex();
+        for (int i = 0; i < 100; i++) {
+            index.insert(userId(i), i);
+        }
+
+        // El mayor valor es la posición 0 y el menor la última
+        assertEquals(userId(99), index.userAt(0));
+        assertEquals(userId(0), index.userAt(99));
+        assertEquals(0, index.rankOf(userId(99), 99));
+        assertEquals(99, index.rankOf(userId(0), 0));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> index.userAt(100));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.userAt(-1));
+    }
+
+    @Test
+    void emptyIndex() {
+        RankedIndex index = new RankedIndex();
+        assertEquals(0, index.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> index.userAt(0));
+
+        index.insert(A, 1);
+        index.remove(A, 1);
+        assertEquals(0, index.size());
+    }
+
+    // Secuencia aleatoria de altas, cambios y bajas (con muchos empates) comparada con una lista ordenada
+    @Test
+    void matchesSortedListUnderRandomOperations() {
+        Random random = new Random(7);
+        RankedIndex index = new RankedIndex();
+        Map<UUID, Double> values = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            UUID userId = userId(random.nextInt(500));
+            Double previous = values.get(userId);
+            if (previous != null) {
+                index.remove(userId, previous);
+                values.remove(userId);
+            }
+            if (previous == null || random.nextInt(4) != 0) {
+                double value = random.nextInt(50);
+                index.insert(userId, value);
+                values.put(userId, value);
+            }
+
+            if (step % 1_000 == 0) {
+                assertMatches(index, values);
+            }
+        }
+        assertMatches(index, values);
+    }
+
+    private static void assertMatches(RankedIndex index, Map<UUID, Double> values) {
+        List<Map.Entry<UUID, Double>> expected = new ArrayList<>(values.entrySet());
+        expected.sort(Map.Entry.<UUID, Double>comparingByValue().reversed()
+                               .thenComparing(Map.Entry.comparingByKey()));
+
+        assertEquals(expected.size(), index.size());
+        for (int position = 0; position < expected.size(); position++) {
+            Map.Entry<UUID, Double> entry = expected.get(position);
+            assertEquals(entry.getKey(), index.userAt(position));
+            assertEquals(position, index.rankOf(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private static List<UUID> users(RankedIndex index) {
+        List<UUID> users = new ArrayList<>();
+        for (int position = 0; position < index.size(); position++) {
+            users.add(index.userAt(position));
+        }
+        return users;
+    }
+
+    private static UUID userId(int i) {
+        return new UUID(0, i);
+    }
+}
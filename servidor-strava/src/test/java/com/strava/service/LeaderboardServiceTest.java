@@ -0,0 +1,175 @@
+package com.strava.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.strava.dao.ChallengeDAO;
+import com.strava.dao.ChallengeProgressDAO;
+import com.strava.dto.LeaderboardEntryDTO;
+import com.strava.dto.ResponseWrapper;
+import com.strava.entity.Challenge;
+import com.strava.entity.enumeration.ObjectiveType;
+import com.strava.entity.enumeration.SportType;
+
+// Un cambio confirmado mientras se carga una clasificación no debe perderse ni contarse dos veces.
+// Las transacciones se simulan llamando por fases a las sincronizaciones que registra LeaderboardService,
+// y challenge_progress es el valor storedValue, que cambia cuando la transacción "confirma"
+class LeaderboardServiceTest {
+
+    private static final UUID CHALLENGE_ID = new UUID(1, 1);
+    private static final UUID USER_ID = new UUID(0, 1);
+    private static final double DELTA = 5;
+
+    private final ChallengeDAO challengeDAO = mock(ChallengeDAO.class);
+    private final ChallengeProgressDAO challengeProgressDAO = mock(ChallengeProgressDAO.class);
+    private LeaderboardService leaderboardService;
+
+    private double storedValue = 10;
+    private int loads = 0;
+    private Runnable duringLoad = () -> {};
+
+    @BeforeEach
+    void setUp() {
+        Challenge challenge = new Challenge();
+        challenge.setId(CHALLENGE_ID);
+        challenge.setSport(SportType.RUNNING);
+        challenge.setObjectiveType(ObjectiveType.DISTANCIA);
+        challenge.setObjectiveValue(100.0);
+        challenge.setStartDate(LocalDate.of(2025, 1, 1));
+        challenge.setEndDate(LocalDate.of(2025, 12, 31));
+
+        when(challengeDAO.findById(CHALLENGE_ID)).thenReturn(Optional.of(challenge));
+        // La carga lee la fila y después (simulando otra transacción concurrente) ejecuta duringLoad
+        when(challengeProgressDAO.findRankingByChallengeId(CHALLENGE_ID)).thenAnswer(invocation -> {
+            loads++;
+            List<ChallengeProgressDAO.RankingValue> rows = List.of(ranking(USER_ID, storedValue));
+            duringLoad.run();
+            return rows;
+        });
+
+        leaderboardService = new LeaderboardService(challengeDAO, challengeProgressDAO, 300, 10);
+    }
+
+    @Test
+    void deltaAfterLoadIsAppliedWithoutReloading() {
+        assertEquals(10.0, value());
+
+        commit(openTransaction());
+
+        assertEquals(15.0, value());
+        assertEquals(1, loads);
+    }
+
+    // La transacción confirma antes de la lectura (la carga ya ve el cambio) pero aplica su delta después de
+    // instalar la clasificación: sin control lo sumaría dos veces
+    @Test
+    void deltaCommittedBeforeLoadAndAppliedAfterIsNotDoubled() {
+        List<TransactionSynchronization> transaction = openTransaction();
+        beforeCommit(transaction);
+        storedValue += DELTA;
+
+        assertEquals(15.0, value());
+        afterCommit(transaction);
+
+        assertEquals(15.0, value());
+        assertEquals(2, loads);
+    }
+
+    // La transacción confirma y aplica su delta después de la lectura pero antes de instalar la clasificación:
+    // sin control el cambio se perdería
+    @Test
+    void deltaCommittedDuringLoadIsNotLost() {
+        duringLoad = () -> {
+            duringLoad = () -> {};
+            commit(openTransaction());
+        };
+
+        value();
+
+        assertEquals(15.0, value());
+        assertEquals(2, loads);
+    }
+
+    @Test
+    void rolledBackTransactionChangesNothing() {
+        assertEquals(10.0, value());
+
+        List<TransactionSynchronization> transaction = openTransaction();
+        for (TransactionSynchronization synchronization : transaction) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertEquals(10.0, value());
+        assertEquals(1, loads);
+    }
+
+    // Registrar en una transacción simulada el cambio de una sesión de DELTA km del usuario
+    private List<TransactionSynchronization> openTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            leaderboardService.onSessionsApplied(
+                List.of(new DailySessionTotals(USER_ID, SportType.RUNNING, LocalDate.of(2025, 6, 1), DELTA, 30, 1)), 1);
+            return List.copyOf(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void commit(List<TransactionSynchronization> transaction) {
+        beforeCommit(transaction);
+        storedValue += DELTA;
+        afterCommit(transaction);
+    }
+
+    private static void beforeCommit(List<TransactionSynchronization> transaction) {
+        for (TransactionSynchronization synchronization : transaction) {
+            synchronization.beforeCommit(false);
+        }
+    }
+
+    private static void afterCommit(List<TransactionSynchronization> transaction) {
+        for (TransactionSynchronization synchronization : transaction) {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    // Con un objetivo de 100 el progreso coincide con el valor acumulado
+    @SuppressWarnings("unchecked")
+    private double value() {
+        ResponseWrapper response = leaderboardService.getLeaderboard(CHALLENGE_ID, 10, null);
+        assertEquals(200, response.getStatusCode());
+        List<LeaderboardEntryDTO> entries = (List<LeaderboardEntryDTO>) response.getData().get("leaderboard");
+        return entries.get(0).getProgress();
+    }
+
+    private static ChallengeProgressDAO.RankingValue ranking(UUID userId, double value) {
+        return new ChallengeProgressDAO.RankingValue() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public String getUserName() {
+                return "Runner";
+            }
+
+            @Override
+            public Double getAccumulatedValue() {
+                return value;
+            }
+        };
+    }
+}
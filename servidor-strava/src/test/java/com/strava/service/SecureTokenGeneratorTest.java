@@ -0,0 +1,69 @@
+package com.strava.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class SecureTokenGeneratorTest {
+
+    private static final int THREADS = 64;
+    private static final int TOKENS_PER_THREAD = 5_000;
+
+    private final SecureTokenGenerator generator = new SecureTokenGenerator();
+
+    // Muchos hilos virtuales pidiendo tokens a la vez: ninguno debe repetirse ni salir mal formado
+    @Test
+    void concurrentTokensAreUnique() throws InterruptedException {
+        Set<String> tokens = ConcurrentHashMap.newKeySet();
+        Set<String> malformed = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < TOKENS_PER_THREAD; j++) {
+                    String token = generator.nextToken();
+                    if (!token.matches("[A-Za-z0-9_-]{43}")) {
+                        malformed.add(token);
+                    }
+                    tokens.add(token);
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(malformed.isEmpty(), "Malformed tokens: " + malformed);
+        assertEquals(THREADS * TOKENS_PER_THREAD, tokens.size());
+    }
+
+    // Trozos de un tamaño que no divide el del buffer, de modo que muchos se reparten entre dos rellenos
+    @Test
+    void bytesAcrossBufferRefillsAreUnique() {
+        Set<String> values = new HashSet<>();
+        byte[] bytes = new byte[24];
+        for (int i = 0; i < 10_000; i++) {
+            generator.nextBytes(bytes);
+            values.add(HexFormat.of().formatHex(bytes));
+        }
+        assertEquals(10_000, values.size());
+    }
+}